@@ -0,0 +1,81 @@
+package com.admincore.microservice.inventory.benchmark;
+
+import com.admincore.microservice.inventory.dto.InventoryResponse;
+import com.admincore.microservice.inventory.dto.JsonApiResponse;
+import com.admincore.microservice.inventory.dto.PurchaseResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the {@link JsonApiResponse} documents the controllers return, with
+ * an {@link ObjectMapper} built the way Spring MVC builds its own: a single inventory
+ * row, a purchase and a full page of 100 rows with pagination links.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonApiResponseBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper objectMapper;
+    private JsonApiResponse<InventoryResponse> inventory;
+    private JsonApiResponse<PurchaseResponse> purchase;
+    private JsonApiResponse<List<InventoryResponse>> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        inventory = new JsonApiResponse<>(new InventoryResponse(1L, 42L, 100, 5, 95));
+        purchase = new JsonApiResponse<>(new PurchaseResponse(42L, "Teclado mecánico", 2,
+                "Purchase successful. 2 units of 'Teclado mecánico' purchased."));
+        List<InventoryResponse> rows = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            rows.add(new InventoryResponse(id, id, 100, 0, 100));
+        }
+        page = new JsonApiResponse<>(rows, Map.of(
+                "self", "http://localhost:8082/api/inventory?page%5Bsize%5D=100",
+                "next", "http://localhost:8082/api/inventory?page%5Bsize%5D=100&page%5Bafter%5D=100"));
+    }
+
+    @Benchmark
+    public byte[] inventory() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inventory);
+    }
+
+    @Benchmark
+    public byte[] purchase() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(purchase);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] inventoryContended() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inventory);
+    }
+}
@@ -0,0 +1,138 @@
+package com.admincore.microservice.inventory.benchmark;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.controller.InventoryController;
+import com.admincore.microservice.inventory.dto.InventoryResponse;
+import com.admincore.microservice.inventory.dto.JsonApiResponse;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.dto.PurchaseResponse;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purchases and lookups through {@link InventoryController} on H2, with the logging of the
+ * default configuration ({@code before}: DEBUG application logs, Hibernate SQL echo and
+ * {@code show-sql}) against the {@code prod} profile (guarded DEBUG calls turned off, no SQL
+ * echo, asynchronous JSON appender). Standard output is redirected to a file in the trial's
+ * temporary directory, so both variants pay for real writes without flooding the JMH output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingProfileBenchmark {
+
+    private static final int HOT_PRODUCTS = 4;
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    @Param({"before", "prod"})
+    public String logging;
+
+    private MockWebServer productService;
+    private Path dataDir;
+    private PrintStream stdout;
+    private PrintStream redirectedStdout;
+    private ConfigurableApplicationContext context;
+    private InventoryController inventoryController;
+    private PurchaseRequest[] requests;
+    /** Stands in for the servlet request; carries no API key fingerprint, as with the filter chain bypassed. */
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        productService = new MockWebServer();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"data\": {\"id\": \"1\", \"attributes\": {\"name\": \"Benchmark Product\"}}}");
+            }
+        });
+        productService.start();
+
+        dataDir = Files.createTempDirectory("logging-benchmark");
+        stdout = System.out;
+        redirectedStdout = new PrintStream(new FileOutputStream(dataDir.resolve("stdout.log").toFile()), true);
+        System.setOut(redirectedStdout);
+
+        String profiles = "prod".equals(logging) ? "test,prod" : "test";
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+                .run("--server.port=0",
+                        "--product.service.url=" + productService.url("/products"),
+                        "--spring.profiles.active=" + profiles);
+        inventoryController = context.getBean(InventoryController.class);
+
+        InventoryRepository inventoryRepository = context.getBean(InventoryRepository.class);
+        requests = new PurchaseRequest[HOT_PRODUCTS];
+        for (int i = 0; i < HOT_PRODUCTS; i++) {
+            long productId = i + 1;
+            inventoryRepository.save(new Inventory(null, productId, INITIAL_STOCK));
+            requests[i] = new PurchaseRequest(productId, 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        productService.shutdown();
+        System.setOut(stdout);
+        redirectedStdout.close();
+        try (var files = Files.walk(dataDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ResponseEntity<JsonApiResponse<PurchaseResponse>> purchase() {
+        return inventoryController.purchase(requests[0], null, httpRequest);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ResponseEntity<JsonApiResponse<PurchaseResponse>> purchaseContended() {
+        return inventoryController.purchase(requests[ThreadLocalRandom.current().nextInt(HOT_PRODUCTS)], null, httpRequest);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ResponseEntity<JsonApiResponse<InventoryResponse>> lookupContended() {
+        return inventoryController.getInventoryByProductId(requests[ThreadLocalRandom.current().nextInt(HOT_PRODUCTS)].getProductId());
+    }
+}
@@ -0,0 +1,123 @@
+package com.admincore.microservice.inventory.benchmark;
+
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.client.ProductServiceGuard;
+import com.admincore.microservice.inventory.config.ProductServiceClientConfig;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips through {@link ProductServiceClient} to a local stub, with the pooled
+ * WebClient of {@link ProductServiceClientConfig}, the Resilience4j guard and a
+ * product cache that keeps nothing, so every call goes over the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceClientBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int BATCH_SIZE = 20;
+
+    private MockWebServer productService;
+    private ConnectionProvider connectionProvider;
+    private ProductServiceClient client;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        productService = new MockWebServer();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getPath().contains("filter")
+                        ? "{\"data\": [{\"id\": \"1\", \"attributes\": {\"name\": \"Benchmark Product\"}}]}"
+                        : "{\"data\": {\"id\": \"1\", \"attributes\": {\"name\": \"Benchmark Product\"}}}";
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(body);
+            }
+        });
+        productService.start();
+
+        ProductServiceClientConfig config = new ProductServiceClientConfig();
+        connectionProvider = config.productServiceConnectionProvider(
+                50, 500, Duration.ofSeconds(2), Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30));
+        WebClient webClient = config.productServiceWebClient(WebClient.builder(), connectionProvider,
+                Duration.ofSeconds(2), Duration.ofSeconds(3), false, true);
+        ProductServiceGuard guard = new ProductServiceGuard(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(100).build()),
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()),
+                Caffeine.newBuilder().maximumSize(PRODUCTS).build(),
+                new SimpleMeterRegistry(), Duration.ofSeconds(5));
+        client = new ProductServiceClient(webClient,
+                Caffeine.newBuilder().maximumSize(0).executor(Runnable::run).build(),
+                guard, new SimpleMeterRegistry(), productService.url("/products").toString(),
+                "BENCHMARK_KEY", true, 100, 8);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        connectionProvider.dispose();
+        productService.shutdown();
+    }
+
+    @Benchmark
+    public ProductInfo single() {
+        return client.getProductInfo(randomProductId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ProductInfo singleContended() {
+        return client.getProductInfo(randomProductId());
+    }
+
+    @Benchmark
+    public Map<Long, ProductInfo> batch() {
+        List<Long> productIds = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            productIds.add(randomProductId());
+        }
+        return client.getProductInfos(productIds);
+    }
+
+    private static long randomProductId() {
+        return ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1);
+    }
+}
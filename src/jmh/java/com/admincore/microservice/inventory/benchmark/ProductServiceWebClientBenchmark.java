@@ -0,0 +1,107 @@
+package com.admincore.microservice.inventory.benchmark;
+
+import com.admincore.microservice.inventory.config.ProductServiceClientConfig;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A raw product lookup against a local stub with the default {@code WebClient} and a
+ * string-concatenated URI ({@code default}), against the pooled client from
+ * {@link ProductServiceClientConfig} with a pre-parsed URI template ({@code tuned}).
+ * Allocation per call is reported by {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceWebClientBenchmark {
+
+    private static final String BODY = "{\"data\": {\"id\": \"1\", \"attributes\": {\"name\": \"Bench Product\", \"price\": 10}}}";
+
+    @Param({"default", "tuned"})
+    public String client;
+
+    private MockWebServer productService;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private String productServiceUrl;
+    private UriComponents productUri;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        productService = new MockWebServer();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(BODY);
+            }
+        });
+        productService.start();
+        productServiceUrl = productService.url("/products").toString();
+
+        if ("tuned".equals(client)) {
+            ProductServiceClientConfig config = new ProductServiceClientConfig();
+            connectionProvider = config.productServiceConnectionProvider(
+                    50, 500, Duration.ofSeconds(2), Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30));
+            webClient = config.productServiceWebClient(WebClient.builder(), connectionProvider,
+                    Duration.ofSeconds(2), Duration.ofSeconds(3), false, true);
+            productUri = UriComponentsBuilder.fromUriString(productServiceUrl)
+                    .path("/{id}")
+                    .encode()
+                    .build();
+        } else {
+            webClient = WebClient.builder().build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        productService.shutdown();
+    }
+
+    @Benchmark
+    public String lookup() {
+        long productId = ThreadLocalRandom.current().nextLong(1, 1_000);
+        WebClient.RequestHeadersSpec<?> request = productUri != null
+                ? webClient.get().uri(productUri.expand(productId).toUri())
+                : webClient.get().uri(productServiceUrl + "/" + productId);
+        return request
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-API-KEY", "BENCH_KEY")
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
+    }
+}
@@ -0,0 +1,135 @@
+package com.admincore.microservice.inventory.benchmark;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.dto.PurchaseResponse;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.service.InventoryService;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InventoryService#purchase(PurchaseRequest)} end to end through Spring, against
+ * embedded H2 and against a SQLite file with the {@code sqlite-tuned} pools. Product
+ * lookups are answered by a local stub and then served from the product cache, so the
+ * numbers are dominated by the transaction, the conditional decrement and the ledger
+ * insert. The contended variant has eight threads buying from a few hot products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PurchaseBenchmark {
+
+    private static final int HOT_PRODUCTS = 4;
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    @Param({"h2", "sqlite"})
+    public String database;
+
+    private MockWebServer productService;
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private PurchaseRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        productService = new MockWebServer();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"data\": {\"id\": \"1\", \"attributes\": {\"name\": \"Benchmark Product\"}}}");
+            }
+        });
+        productService.start();
+
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--product.service.url=" + productService.url("/products"),
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.mvc.log-request-details=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.com.admincore.microservice=WARN"));
+        if ("sqlite".equals(database)) {
+            dataDir = Files.createTempDirectory("purchase-benchmark");
+            args.add("--spring.profiles.active=test,sqlite-tuned");
+            args.add("--spring.datasource.url=jdbc:sqlite:" + dataDir.resolve("inventory.db"));
+            args.add("--spring.datasource.driver-class-name=org.sqlite.JDBC");
+            args.add("--spring.jpa.database-platform=com.admincore.microservice.inventory.config.SQLiteDialect");
+        } else {
+            args.add("--spring.profiles.active=test");
+        }
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+                .run(args.toArray(String[]::new));
+        inventoryService = context.getBean(InventoryService.class);
+
+        InventoryRepository inventoryRepository = context.getBean(InventoryRepository.class);
+        requests = new PurchaseRequest[HOT_PRODUCTS];
+        for (int i = 0; i < HOT_PRODUCTS; i++) {
+            long productId = i + 1;
+            inventoryRepository.save(new Inventory(null, productId, INITIAL_STOCK));
+            requests[i] = new PurchaseRequest(productId, 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        productService.shutdown();
+        if (dataDir != null) {
+            try (var files = Files.walk(dataDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public PurchaseResponse purchase() {
+        return inventoryService.purchase(requests[0]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public PurchaseResponse purchaseContended() {
+        return inventoryService.purchase(requests[ThreadLocalRandom.current().nextInt(HOT_PRODUCTS)]);
+    }
+}
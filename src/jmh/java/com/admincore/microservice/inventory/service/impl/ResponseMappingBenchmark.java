@@ -0,0 +1,49 @@
+package com.admincore.microservice.inventory.service.impl;
+
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.dto.InventoryResponse;
+import com.admincore.microservice.inventory.model.Inventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@code InventoryServiceImpl.toResponse} for a JPA row and for a cached
+ * stock entry, which every single-product read pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private final Inventory inventory = new Inventory(1L, 42L, 100);
+    private final StockCache.Stock stock = new StockCache.Stock(1L, 42L, 100, 5);
+
+    @Benchmark
+    public InventoryResponse fromInventory() {
+        return InventoryServiceImpl.toResponse(inventory);
+    }
+
+    @Benchmark
+    public InventoryResponse fromCachedStock() {
+        return InventoryServiceImpl.toResponse(stock);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public InventoryResponse fromCachedStockContended() {
+        return InventoryServiceImpl.toResponse(stock);
+    }
+}
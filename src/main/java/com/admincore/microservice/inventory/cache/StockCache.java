@@ -0,0 +1,420 @@
+package com.admincore.microservice.inventory.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process map of product id to stock and reserved units, keyed by primitive {@code long}.
+ * <p>
+ * Entries live in lock-striped open-addressing tables, so a hit costs one hash probe
+ * and never touches the database. Entries expire a fixed time after they were loaded
+ * and, once a segment is full, the oldest of a few sampled entries is evicted.
+ * <p>
+ * Readers load through {@link #loadToken(long)} and {@link #putIfUnchanged}: the put
+ * is dropped if any write to the same segment started or finished in between, so a
+ * value read before a commit can never overwrite a newer one. Writers bracket their
+ * transaction with {@link #beginWrite(long)} and {@link Write#complete(boolean)}; a
+ * write that overlapped another one in its segment invalidates instead of applying.
+ */
+public class StockCache {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StockCache(boolean enabled, long maximumSize, Duration ttl) {
+        this(enabled, maximumSize, ttl, System::nanoTime);
+    }
+
+    StockCache(boolean enabled, long maximumSize, Duration ttl, LongSupplier clock) {
+        this.enabled = enabled && maximumSize > 0;
+        this.ttlNanos = ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : ttl.toNanos();
+        this.clock = clock;
+        int segmentCount = this.enabled ? (int) Math.min(MAX_SEGMENTS, Long.highestOneBit(maximumSize)) : 1;
+        int perSegment = this.enabled ? (int) Math.min(1 << 28, (maximumSize + segmentCount - 1) / segmentCount) : 0;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached stock for a product, or {@code null} on a miss.
+     */
+    public Stock get(long productId) {
+        if (!enabled) {
+            return null;
+        }
+        int hash = hash(productId);
+        Stock stock = segmentFor(hash).get(productId, hash, clock.getAsLong());
+        (stock != null ? hits : misses).increment();
+        return stock;
+    }
+
+    /**
+     * Captures the state a subsequent {@link #putIfUnchanged} is checked against.
+     * Must be taken before reading the database.
+     */
+    public long loadToken(long productId) {
+        if (!enabled) {
+            return 0;
+        }
+        return segmentFor(hash(productId)).generation;
+    }
+
+    /**
+     * Caches a value read from the database, unless a write to the same segment
+     * started or finished since {@code token} was taken.
+     */
+    public boolean putIfUnchanged(long productId, long id, int quantity, int reserved, long token) {
+        if (!enabled) {
+            return false;
+        }
+        int hash = hash(productId);
+        return segmentFor(hash).putIfUnchanged(productId, hash, id, quantity, reserved, token, clock.getAsLong());
+    }
+
+    /**
+     * Starts a write to a product's stock. The returned handle must be completed
+     * exactly once, after the surrounding transaction commits or rolls back.
+     */
+    public Write beginWrite(long productId) {
+        if (!enabled) {
+            return Write.NOOP;
+        }
+        int hash = hash(productId);
+        Segment segment = segmentFor(hash);
+        return new Write(this, segment, productId, hash, segment.beginWrite());
+    }
+
+    public void invalidate(long productId) {
+        if (enabled) {
+            int hash = hash(productId);
+            segmentFor(hash).invalidate(productId, hash);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    public record Stock(long id, long productId, int quantity, int reserved) {
+    }
+
+    /**
+     * A pending write to one product, recording the change to apply on commit.
+     */
+    public static final class Write {
+
+        static final Write NOOP = new Write(null, null, 0, 0, 0);
+
+        private final StockCache cache;
+        private final Segment segment;
+        private final long productId;
+        private final int hash;
+        private final long token;
+        private boolean hasValue;
+        private boolean absolute;
+        private long id;
+        private int quantity;
+        private int reserved;
+        private boolean completed;
+
+        private Write(StockCache cache, Segment segment, long productId, int hash, long token) {
+            this.cache = cache;
+            this.segment = segment;
+            this.productId = productId;
+            this.hash = hash;
+            this.token = token;
+        }
+
+        /**
+         * Records the stored row, replacing whatever is cached on commit.
+         */
+        public void put(long id, int quantity, int reserved) {
+            if (segment == null) {
+                return;
+            }
+            this.hasValue = true;
+            this.absolute = true;
+            this.id = id;
+            this.quantity = quantity;
+            this.reserved = reserved;
+        }
+
+        /**
+         * Records a relative change to the stock, applied on commit to the entry if it is cached.
+         */
+        public void adjust(int delta) {
+            adjust(delta, 0);
+        }
+
+        /**
+         * Records relative changes to the stock and the reserved units, applied on commit
+         * to the entry if it is cached.
+         */
+        public void adjust(int quantityDelta, int reservedDelta) {
+            if (segment == null) {
+                return;
+            }
+            this.hasValue = true;
+            this.absolute = false;
+            this.quantity = quantityDelta;
+            this.reserved = reservedDelta;
+        }
+
+        public void complete(boolean committed) {
+            if (segment == null || completed) {
+                return;
+            }
+            completed = true;
+            segment.completeWrite(this, committed && hasValue, cache.clock.getAsLong());
+        }
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maximumSize;
+        private final int mask;
+        private final long[] keys;
+        private final long[] ids;
+        private final int[] quantities;
+        private final int[] reserved;
+        private final long[] loadedAt;
+        private final boolean[] used;
+        private volatile long generation;
+        private volatile int size;
+        private int pendingWrites;
+        private int hand;
+
+        Segment(int maximumSize) {
+            this.maximumSize = maximumSize;
+            int capacity = Integer.highestOneBit(Math.max(2, maximumSize * 2 - 1)) << 1;
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.ids = new long[capacity];
+            this.quantities = new int[capacity];
+            this.reserved = new int[capacity];
+            this.loadedAt = new long[capacity];
+            this.used = new boolean[capacity];
+        }
+
+        Stock get(long key, int hash, long now) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                if (now - loadedAt[slot] >= ttlNanos) {
+                    remove(slot);
+                    return null;
+                }
+                return new Stock(ids[slot], key, quantities[slot], reserved[slot]);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean putIfUnchanged(long key, int hash, long id, int quantity, int reservedUnits, long token, long now) {
+            lock.lock();
+            try {
+                if (pendingWrites > 0 || generation != token) {
+                    return false;
+                }
+                store(key, hash, id, quantity, reservedUnits, now);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long beginWrite() {
+            lock.lock();
+            try {
+                pendingWrites++;
+                return ++generation;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void completeWrite(Write write, boolean apply, long now) {
+            lock.lock();
+            try {
+                pendingWrites--;
+                boolean exclusive = generation == write.token;
+                generation++;
+                int slot = find(write.productId, write.hash);
+                if (!apply || !exclusive) {
+                    if (slot >= 0) {
+                        remove(slot);
+                    }
+                } else if (write.absolute) {
+                    store(write.productId, write.hash, write.id, write.quantity, write.reserved, now);
+                } else if (slot >= 0) {
+                    quantities[slot] += write.quantity;
+                    reserved[slot] += write.reserved;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void invalidate(long key, int hash) {
+            lock.lock();
+            try {
+                generation++;
+                int slot = find(key, hash);
+                if (slot >= 0) {
+                    remove(slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                generation++;
+                Arrays.fill(used, false);
+                size = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void store(long key, int hash, long id, int quantity, int reservedUnits, long now) {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                if (size >= maximumSize) {
+                    evictOne(now);
+                }
+                slot = insertionSlot(hash);
+                used[slot] = true;
+                keys[slot] = key;
+                size++;
+            }
+            ids[slot] = id;
+            quantities[slot] = quantity;
+            reserved[slot] = reservedUnits;
+            loadedAt[slot] = now;
+        }
+
+        private int find(long key, int hash) {
+            for (int slot = hash & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int insertionSlot(int hash) {
+            int slot = hash & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void evictOne(long now) {
+            int victim = -1;
+            int sampled = 0;
+            for (int i = 0; i <= mask && sampled < EVICTION_SAMPLES; i++) {
+                int slot = (hand + i) & mask;
+                if (!used[slot]) {
+                    continue;
+                }
+                if (now - loadedAt[slot] >= ttlNanos) {
+                    victim = slot;
+                    break;
+                }
+                if (victim < 0 || loadedAt[slot] < loadedAt[victim]) {
+                    victim = slot;
+                }
+                sampled++;
+            }
+            if (victim >= 0) {
+                hand = (victim + 1) & mask;
+                remove(victim);
+            }
+        }
+
+        /**
+         * Deletes a slot with backward-shift so probe chains stay unbroken without tombstones.
+         */
+        private void remove(int slot) {
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (!used[next]) {
+                    break;
+                }
+                int home = hash(keys[next]) & mask;
+                boolean movable = hole <= next
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    keys[hole] = keys[next];
+                    ids[hole] = ids[next];
+                    quantities[hole] = quantities[next];
+                    reserved[hole] = reserved[next];
+                    loadedAt[hole] = loadedAt[next];
+                    hole = next;
+                }
+            }
+            used[hole] = false;
+            size--;
+        }
+    }
+}
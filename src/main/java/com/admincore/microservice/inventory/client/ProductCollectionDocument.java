@@ -0,0 +1,9 @@
+package com.admincore.microservice.inventory.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+record ProductCollectionDocument(List<ProductDocument.Data> data) {
+}
@@ -0,0 +1,17 @@
+package com.admincore.microservice.inventory.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+record ProductDocument(Data data) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Data(String id, Attributes attributes) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Attributes(String name, BigDecimal price, String description) {
+    }
+}
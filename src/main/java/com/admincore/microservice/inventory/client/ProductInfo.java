@@ -0,0 +1,34 @@
+package com.admincore.microservice.inventory.client;
+
+import java.math.BigDecimal;
+
+public record ProductInfo(Long id, boolean exists, String name, BigDecimal price, String description) {
+
+    public static final String UNKNOWN_NAME = "Unknown Product";
+
+    public static ProductInfo notFound(Long id) {
+        return new ProductInfo(id, false, null, null, null);
+    }
+
+    static ProductInfo from(Long id, ProductDocument document) {
+        if (document == null) {
+            return notFound(id);
+        }
+        return from(id, document.data());
+    }
+
+    static ProductInfo from(Long id, ProductDocument.Data data) {
+        if (data == null) {
+            return notFound(id);
+        }
+        ProductDocument.Attributes attributes = data.attributes();
+        if (attributes == null) {
+            return new ProductInfo(id, true, null, null, null);
+        }
+        return new ProductInfo(id, true, attributes.name(), attributes.price(), attributes.description());
+    }
+
+    public String displayName() {
+        return name != null ? name : UNKNOWN_NAME;
+    }
+}
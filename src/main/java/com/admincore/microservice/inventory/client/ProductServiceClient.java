@@ -1,85 +1,269 @@
 package com.admincore.microservice.inventory.client;
 
 import com.admincore.microservice.inventory.exception.ProductServiceException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ProductServiceClient {
 
     private final WebClient webClient;
-    private final String productServiceUrl;
+    private final Cache<Long, ProductInfo> productCache;
+    private final ProductServiceGuard guard;
+    private final UriComponents productUri;
+    private final UriComponents productBatchUri;
     private final String productServiceApiKey;
+    private final AtomicBoolean batchEndpointAvailable;
+    private final int batchMaxIds;
+    private final int fanOutConcurrency;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, Mono<ProductInfo>> inFlight = new ConcurrentHashMap<>();
 
-    public ProductServiceClient(WebClient.Builder webClientBuilder,
+    public ProductServiceClient(@Qualifier("productServiceWebClient") WebClient webClient,
+                                @Qualifier("productCache") Cache<Long, ProductInfo> productCache,
+                                ProductServiceGuard guard,
+                                MeterRegistry meterRegistry,
                                 @Value("${product.service.url}") String productServiceUrl,
-                                @Value("${product.service.api-key}") String productServiceApiKey) {
-        this.webClient = webClientBuilder.build();
-        this.productServiceUrl = productServiceUrl;
+                                @Value("${product.service.api-key}") String productServiceApiKey,
+                                @Value("${product.service.batch.enabled:false}") boolean batchEnabled,
+                                @Value("${product.service.batch.max-ids:100}") int batchMaxIds,
+                                @Value("${product.service.batch.fan-out-concurrency:8}") int fanOutConcurrency) {
+        this.webClient = webClient;
+        this.productCache = productCache;
+        this.guard = guard;
+        this.meterRegistry = meterRegistry;
+        this.productUri = UriComponentsBuilder.fromUriString(productServiceUrl)
+                .path("/{id}")
+                .encode()
+                .build();
+        this.productBatchUri = UriComponentsBuilder.fromUriString(productServiceUrl)
+                .queryParam("filter[id]", "{ids}")
+                .encode()
+                .build();
         this.productServiceApiKey = productServiceApiKey;
+        this.batchEndpointAvailable = new AtomicBoolean(batchEnabled);
+        this.batchMaxIds = Math.max(1, batchMaxIds);
+        this.fanOutConcurrency = Math.max(1, fanOutConcurrency);
+    }
+
+    public ProductInfo getProductInfo(Long productId) {
+        return getProductInfoAsync(productId).block();
     }
 
     public boolean isProductAvailable(Long productId) {
+        return getProductInfo(productId).exists();
+    }
+
+    public String getProductName(Long productId) {
         try {
-            JsonNode response = webClient.get()
-                    .uri(productServiceUrl + "/" + productId)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .header("X-API-KEY", productServiceApiKey)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block();
-            log.debug("Product {} found in product service", productId);
-            return response != null && response.has("data");
-        } catch (WebClientResponseException.NotFound e) {
-            log.warn("Product {} not found in product service", productId);
-            return false;
-        } catch (WebClientResponseException e) {
-            if (e.getStatusCode().is4xxClientError()) {
-                log.error("Client error (4xx) calling product service for product {}: {}", productId, e.getMessage());
-                throw new ProductServiceException("Client error for product " + productId + ": " + e.getMessage(), e.getStatusCode(), e);
-            } else if (e.getStatusCode().is5xxServerError()) {
-                log.error("Server error (5xx) from product service for product {}: {}", productId, e.getMessage());
-                throw new ProductServiceException("Server error from product service", e.getStatusCode(), e);
+            return getProductInfo(productId).displayName();
+        } catch (Exception e) {
+            log.error("Error getting product name for product {}: {}", productId, e.getMessage());
+            return ProductInfo.UNKNOWN_NAME;
+        }
+    }
+
+    public Mono<ProductInfo> getProductInfoAsync(Long productId) {
+        ProductInfo cached = productCache.getIfPresent(productId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return inFlight.computeIfAbsent(productId, this::sharedRequest);
+    }
+
+    public Map<Long, ProductInfo> getProductInfos(Collection<Long> productIds) {
+        return getProductInfosAsync(productIds).block();
+    }
+
+    public Mono<Map<Long, ProductInfo>> getProductInfosAsync(Collection<Long> productIds) {
+        Map<Long, ProductInfo> products = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            ProductInfo cached = productCache.getIfPresent(productId);
+            if (cached != null) {
+                products.put(productId, cached);
             } else {
-                log.error("Unexpected HTTP status from product service for product {}: {}", productId, e.getStatusCode());
-                throw new ProductServiceException("Unexpected HTTP response from product service", HttpStatus.INTERNAL_SERVER_ERROR, e);
+                missing.add(productId);
             }
-        } catch (Exception e) {
-            log.error("Unexpected error calling product service for product {}: {}", productId, e.getMessage(), e);
-            throw new ProductServiceException("Unexpected error communicating with product service", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
+        if (missing.isEmpty()) {
+            return Mono.just(products);
+        }
+        return Flux.fromIterable(partition(missing))
+                .concatMap(this::requestProducts)
+                .collectMap(ProductInfo::id, product -> product, () -> products);
     }
 
-    public String getProductName(Long productId) {
-        try {
-            JsonNode response = webClient.get()
-                    .uri(productServiceUrl + "/" + productId)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .header("X-API-KEY", productServiceApiKey)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block();
-
-            if (response != null && response.has("data")) {
-                JsonNode dataNode = response.get("data");
-                if (dataNode != null && dataNode.has("attributes")) {
-                    JsonNode attributesNode = dataNode.get("attributes");
-                    if (attributesNode != null && attributesNode.has("name")) {
-                        return attributesNode.get("name").asText();
+    private Mono<ProductInfo> sharedRequest(Long productId) {
+        return requestProduct(productId)
+                .doOnNext(product -> productCache.put(productId, product))
+                .doFinally(signal -> inFlight.remove(productId))
+                .cache();
+    }
+
+    private Flux<ProductInfo> requestProducts(List<Long> productIds) {
+        if (!batchEndpointAvailable.get()) {
+            return fanOut(productIds);
+        }
+        return guard.protect(timed("batch", Mono.defer(() -> webClient.get()
+                        .uri(productBatchUri.expand(productIds.stream().map(String::valueOf).collect(Collectors.joining(","))).toUri())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-KEY", productServiceApiKey)
+                        .retrieve()
+                        .bodyToMono(ProductCollectionDocument.class))))
+                .flatMapMany(collection -> Flux.fromIterable(toProductInfos(productIds, collection)))
+                .doOnNext(product -> {
+                    productCache.put(product.id(), product);
+                    guard.remember(product);
+                })
+                .onErrorResume(e -> {
+                    if (ProductServiceGuard.isRejected(e)) {
+                        log.warn("Batch lookup of {} products rejected ({}), resolving them individually", productIds.size(), e.getMessage());
+                    } else if (e instanceof WebClientResponseException ex && isBatchUnsupported(ex)) {
+                        log.warn("Product service has no batch endpoint ({}), falling back to individual lookups", ex.getStatusCode());
+                        batchEndpointAvailable.set(false);
+                    } else {
+                        log.warn("Batch lookup of {} products failed, falling back to individual lookups: {}", productIds.size(), e.getMessage());
+                    }
+                    return fanOut(productIds);
+                });
+    }
+
+    private Flux<ProductInfo> fanOut(List<Long> productIds) {
+        return Flux.fromIterable(productIds)
+                .flatMap(this::getProductInfoAsync, fanOutConcurrency);
+    }
+
+    private List<ProductInfo> toProductInfos(List<Long> productIds, ProductCollectionDocument collection) {
+        Map<Long, ProductDocument.Data> byId = new HashMap<>();
+        if (collection != null && collection.data() != null) {
+            for (ProductDocument.Data data : collection.data()) {
+                if (data != null && data.id() != null) {
+                    try {
+                        byId.put(Long.valueOf(data.id()), data);
+                    } catch (NumberFormatException e) {
+                        log.warn("Ignoring product with non-numeric id '{}' in batch response", data.id());
                     }
                 }
             }
-            return "Unknown Product";
-        } catch (Exception e) {
-            log.error("Error getting product name for product {}: {}", productId, e.getMessage());
-            return "Unknown Product";
         }
+        return productIds.stream()
+                .map(productId -> ProductInfo.from(productId, byId.get(productId)))
+                .collect(Collectors.toList());
+    }
+
+    private List<List<Long>> partition(List<Long> productIds) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < productIds.size(); i += batchMaxIds) {
+            chunks.add(productIds.subList(i, Math.min(i + batchMaxIds, productIds.size())));
+        }
+        return chunks;
+    }
+
+    private boolean isBatchUnsupported(WebClientResponseException e) {
+        int status = e.getStatusCode().value();
+        return status == 400 || status == 404 || status == 405 || status == 501;
+    }
+
+    private Mono<ProductInfo> requestProduct(Long productId) {
+        Mono<ProductInfo> call = timed("single", Mono.defer(() -> webClient.get()
+                        .uri(productUri.expand(productId).toUri())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-API-KEY", productServiceApiKey)
+                        .retrieve()
+                        .bodyToMono(ProductDocument.class)))
+                .map(document -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Product {} found in product service", productId);
+                    }
+                    return ProductInfo.from(productId, document);
+                })
+                .defaultIfEmpty(ProductInfo.notFound(productId))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                    log.warn("Product {} not found in product service", productId);
+                    return Mono.just(ProductInfo.notFound(productId));
+                });
+        return guard.lookup(productId, call)
+                .onErrorMap(e -> !(e instanceof ProductServiceException), e -> toProductServiceException(productId, e));
+    }
+
+    /**
+     * Times each HTTP attempt, retries included, under {@code product.service.requests}.
+     * Cache hits never get here, so the timer only measures time spent on the wire.
+     */
+    private <T> Mono<T> timed(String call, Mono<T> request) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return request
+                    .doOnSuccess(value -> sample.stop(requestTimer(call, "success")))
+                    .doOnError(error -> sample.stop(requestTimer(call, outcome(error))))
+                    .doOnCancel(() -> sample.stop(requestTimer(call, "cancelled")));
+        });
+    }
+
+    private Timer requestTimer(String call, String outcome) {
+        return Timer.builder("product.service.requests")
+                .description("Round trips to the product service")
+                .tag("call", call)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            if (e.getStatusCode().value() == 404) {
+                return "not_found";
+            }
+            return e.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        return "error";
+    }
+
+    private ProductServiceException toProductServiceException(Long productId, Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                log.error("Client error (4xx) calling product service for product {}: {}", productId, e.getMessage());
+                return new ProductServiceException("Client error for product " + productId + ": " + e.getMessage(), e.getStatusCode(), e);
+            } else if (e.getStatusCode().is5xxServerError()) {
+                log.error("Server error (5xx) from product service for product {}: {}", productId, e.getMessage());
+                return new ProductServiceException("Server error from product service", e.getStatusCode(), e);
+            } else {
+                log.error("Unexpected HTTP status from product service for product {}: {}", productId, e.getStatusCode());
+                return new ProductServiceException("Unexpected HTTP response from product service", HttpStatus.INTERNAL_SERVER_ERROR, e);
+            }
+        }
+        if (error instanceof TimeoutException) {
+            log.error("Timed out calling product service for product {}", productId);
+            return new ProductServiceException("Timed out waiting for product service", HttpStatus.GATEWAY_TIMEOUT, error);
+        }
+        log.error("Unexpected error calling product service for product {}: {}", productId, error.getMessage(), error);
+        return new ProductServiceException("Unexpected error communicating with product service", HttpStatus.INTERNAL_SERVER_ERROR, error);
     }
-}
\ No newline at end of file
+}
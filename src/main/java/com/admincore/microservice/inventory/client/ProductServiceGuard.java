@@ -0,0 +1,102 @@
+package com.admincore.microservice.inventory.client;
+
+import com.admincore.microservice.inventory.exception.ProductServiceException;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Component
+@Slf4j
+public class ProductServiceGuard {
+
+    static final String INSTANCE = "product-service";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final Cache<Long, ProductInfo> lastKnownProducts;
+    private final Duration callTimeout;
+    private final Counter degradedHits;
+    private final Counter degradedMisses;
+
+    public ProductServiceGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                               BulkheadRegistry bulkheadRegistry,
+                               RetryRegistry retryRegistry,
+                               @Qualifier("lastKnownProductCache") Cache<Long, ProductInfo> lastKnownProducts,
+                               MeterRegistry meterRegistry,
+                               @Value("${product.service.timeout.call:5s}") Duration callTimeout) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        this.retry = retryRegistry.retry(INSTANCE);
+        this.lastKnownProducts = lastKnownProducts;
+        this.callTimeout = callTimeout;
+        this.degradedHits = degradedCounter(meterRegistry, "hit");
+        this.degradedMisses = degradedCounter(meterRegistry, "miss");
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Product service circuit breaker transitioned {}", event.getStateTransition()));
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return call
+                .timeout(callTimeout)
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry));
+    }
+
+    public Mono<ProductInfo> lookup(Long productId, Mono<ProductInfo> call) {
+        return protect(call)
+                .doOnNext(this::remember)
+                .onErrorResume(ProductServiceGuard::isRejected, e -> lastKnown(productId, e));
+    }
+
+    public void remember(ProductInfo product) {
+        lastKnownProducts.put(product.id(), product);
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    static boolean isRejected(Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException;
+    }
+
+    private Mono<ProductInfo> lastKnown(Long productId, Throwable error) {
+        ProductInfo product = lastKnownProducts.getIfPresent(productId);
+        if (product != null) {
+            degradedHits.increment();
+            log.warn("Product service call for product {} rejected ({}), serving last known state", productId, error.getMessage());
+            return Mono.just(product);
+        }
+        degradedMisses.increment();
+        log.error("Product service call for product {} rejected ({}) and no last known state is available", productId, error.getMessage());
+        return Mono.error(new ProductServiceException("Product service unavailable", HttpStatus.SERVICE_UNAVAILABLE, error));
+    }
+
+    private static Counter degradedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("product.service.degraded")
+                .description("Product lookups answered while the product service call was rejected")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,51 +1,169 @@
 package com.admincore.microservice.inventory.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
+/**
+ * Checks the {@code x-api-key} header against the configured keys.
+ * <p>
+ * {@code security.api-key} is the current key and {@code security.api-keys} lists
+ * any others accepted at the same time, so a key can be rotated by deploying the new
+ * one next to the old before removing it. The keys are encoded once into byte arrays
+ * and every request is compared against all of them in constant time, without
+ * allocating. The servlet container decodes header bytes as ISO-8859-1, so each char
+ * of the header is one byte of what the client sent.
+ * <p>
+ * Runs only inside the Spring Security filter chain; {@link SecurityConfig} turns off
+ * its servlet registration. The key is checked and counted once, on the original
+ * {@code REQUEST} dispatch; the {@code ASYNC} and {@code ERROR} dispatches that follow
+ * for the same request pass straight through.
+ */
 @Component
 public class ApiKeyFilter implements Filter {
 
-    @Value("${security.api-key}")
-    private String apiKey;
+    static final String HEADER = "x-api-key";
+    /** Request attribute holding the fingerprint of the key that was accepted. */
+    static final String KEY_ATTRIBUTE = ApiKeyFilter.class.getName() + ".key";
+
+    private static final String[] PUBLIC_PATH_PREFIXES = {"/swagger-ui", "/v3/api-docs"};
+    private static final byte[] UNAUTHORIZED_BODY = ("{\"data\":null,\"errors\":[{\"status\":\"401\","
+            + "\"title\":\"Unauthorized\",\"detail\":\"Missing or invalid API key\"}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final byte[][] keys;
+    private final String[] fingerprints;
+    private final Counter[] accepted;
+    private final Counter rejected;
+
+    public ApiKeyFilter(@Value("${security.api-key}") String apiKey,
+                        @Value("${security.api-keys:}") String[] additionalApiKeys,
+                        MeterRegistry meterRegistry) {
+        Set<String> configured = new LinkedHashSet<>();
+        configured.add(apiKey);
+        for (String key : additionalApiKeys) {
+            if (!key.isBlank()) {
+                configured.add(key.trim());
+            }
+        }
+        this.keys = new byte[configured.size()][];
+        this.fingerprints = new String[configured.size()];
+        this.accepted = new Counter[configured.size()];
+        int i = 0;
+        for (String key : configured) {
+            keys[i] = key.getBytes(StandardCharsets.UTF_8);
+            fingerprints[i] = fingerprint(keys[i]);
+            accepted[i] = Counter.builder("security.api-key.requests")
+                    .description("Requests authenticated with each API key")
+                    .tag("key", fingerprints[i])
+                    .tag("outcome", "accepted")
+                    .register(meterRegistry);
+            i++;
+        }
+        this.rejected = Counter.builder("security.api-key.requests")
+                .description("Requests authenticated with each API key")
+                .tag("key", "none")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
 
         HttpServletRequest httpRequest = (HttpServletRequest) request;
-        HttpServletResponse httpResponse = (HttpServletResponse) response;
-
-        String path = httpRequest.getRequestURI();
 
-        if (path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs")) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || isPublic(httpRequest)) {
             chain.doFilter(request, response);
             return;
         }
 
-        String requestApiKey = httpRequest.getHeader("x-api-key");
-
-        if (requestApiKey == null || !requestApiKey.equals(apiKey)) {
-            httpResponse.setStatus(HttpStatus.UNAUTHORIZED.value());
+        int key = matchingKey(httpRequest.getHeader(HEADER), keys);
+        if (key < 0) {
+            rejected.increment();
+            reject((HttpServletResponse) response);
             return;
         }
+        accepted[key].increment();
+        request.setAttribute(KEY_ATTRIBUTE, fingerprints[key]);
 
         chain.doFilter(request, response);
     }
 
-    @Override
-    public void init(FilterConfig filterConfig) throws ServletException {
-        Filter.super.init(filterConfig);
+    /**
+     * Fingerprint of the key {@code request} was accepted with, or {@code null} if it did
+     * not go through this filter.
+     */
+    public static String keyFingerprint(ServletRequest request) {
+        return request.getAttribute(KEY_ATTRIBUTE) instanceof String fingerprint ? fingerprint : null;
     }
 
-    @Override
-    public void destroy() {
-        Filter.super.destroy();
+    /**
+     * Index of the key equal to {@code candidate}, or {@code -1}. Every key is compared
+     * over its full length whatever the candidate, so the time taken does not depend on
+     * where, or whether, they differ.
+     */
+    static int matchingKey(String candidate, byte[][] keys) {
+        if (candidate == null) {
+            return -1;
+        }
+        int length = candidate.length();
+        int match = -1;
+        for (int k = 0; k < keys.length; k++) {
+            byte[] key = keys[k];
+            int diff = length ^ key.length;
+            for (int i = 0; i < key.length; i++) {
+                int c = i < length ? candidate.charAt(i) : 0;
+                diff |= c ^ (key[i] & 0xff);
+            }
+            if (diff == 0) {
+                match = k;
+            }
+        }
+        return match;
+    }
+
+    private static boolean isPublic(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath().length();
+        for (String prefix : PUBLIC_PATH_PREFIXES) {
+            if (uri.startsWith(prefix, offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(UNAUTHORIZED_BODY.length);
+        response.getOutputStream().write(UNAUTHORIZED_BODY);
+    }
+
+    /**
+     * Short SHA-256 prefix that names a key in metrics without revealing it.
+     */
+    private static String fingerprint(byte[] key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key);
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-}
\ No newline at end of file
+}
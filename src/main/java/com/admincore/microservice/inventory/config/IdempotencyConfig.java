@@ -0,0 +1,36 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.idempotency.IdempotencyStore;
+import com.admincore.microservice.inventory.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(
+            @Value("${inventory.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${inventory.idempotency.ttl:24h}") Duration ttl,
+            @Value("${inventory.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${inventory.idempotency.persistence.enabled:false}") boolean persistent,
+            IdempotencyRecordRepository records,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        Cache<String, IdempotencyStore.Execution> executions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, executions, "inventory-idempotency");
+        return new IdempotencyStore(executions, persistent ? records : null, objectMapper, ttl, waitTimeout);
+    }
+}
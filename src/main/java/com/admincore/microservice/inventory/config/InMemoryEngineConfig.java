@@ -0,0 +1,38 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.engine.InMemoryInventoryEngine;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "memory")
+public class InMemoryEngineConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public InMemoryInventoryEngine inMemoryInventoryEngine(
+            InventoryRepository inventoryRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${inventory.memory-engine.journal-dir:inventory-journal}") Path journalDirectory,
+            @Value("${inventory.memory-engine.journal-segment-size:64MB}") DataSize journalSegmentSize,
+            @Value("${inventory.memory-engine.stripes:256}") int stripes,
+            @Value("${inventory.memory-engine.flush-interval:200ms}") Duration flushInterval,
+            MeterRegistry meterRegistry) {
+        InMemoryInventoryEngine engine = new InMemoryInventoryEngine(inventoryRepository, jdbcTemplate, transactionTemplate,
+                journalDirectory, (int) journalSegmentSize.toBytes(), stripes, flushInterval);
+        Gauge.builder("inventory.engine.pending.records", engine, InMemoryInventoryEngine::pendingRecords)
+                .register(meterRegistry);
+        return engine;
+    }
+}
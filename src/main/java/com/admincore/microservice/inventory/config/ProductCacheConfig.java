@@ -0,0 +1,71 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ProductCacheConfig {
+
+    @Bean
+    public Cache<Long, ProductInfo> productCache(
+            @Value("${product.service.cache.enabled:true}") boolean enabled,
+            @Value("${product.service.cache.maximum-size:10000}") long maximumSize,
+            @Value("${product.service.cache.ttl:10m}") Duration ttl,
+            @Value("${product.service.cache.negative-ttl:30s}") Duration negativeTtl,
+            MeterRegistry meterRegistry) {
+        Cache<Long, ProductInfo> cache = Caffeine.newBuilder()
+                .maximumSize(enabled ? maximumSize : 0)
+                .expireAfter(new ProductExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "product-service");
+    }
+
+    @Bean
+    public Cache<Long, ProductInfo> lastKnownProductCache(
+            @Value("${product.service.last-known.maximum-size:100000}") long maximumSize,
+            @Value("${product.service.last-known.ttl:24h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        Cache<Long, ProductInfo> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "product-service-last-known");
+    }
+
+    static final class ProductExpiry implements Expiry<Long, ProductInfo> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        ProductExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long productId, ProductInfo product, long currentTime) {
+            return product.exists() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long productId, ProductInfo product, long currentTime, long currentDuration) {
+            return expireAfterCreate(productId, product, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long productId, ProductInfo product, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
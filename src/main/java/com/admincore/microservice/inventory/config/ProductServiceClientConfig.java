@@ -0,0 +1,58 @@
+package com.admincore.microservice.inventory.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class ProductServiceClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider productServiceConnectionProvider(
+            @Value("${product.service.http.max-connections:50}") int maxConnections,
+            @Value("${product.service.http.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+            @Value("${product.service.http.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${product.service.http.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${product.service.http.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${product.service.http.evict-interval:30s}") Duration evictInterval) {
+        return ConnectionProvider.builder("product-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient productServiceWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider productServiceConnectionProvider,
+            @Value("${product.service.timeout.connect:2s}") Duration connectTimeout,
+            @Value("${product.service.timeout.response:3s}") Duration responseTimeout,
+            @Value("${product.service.http.h2c:false}") boolean h2c,
+            @Value("${product.service.http.compression:true}") boolean compression) {
+        HttpClient httpClient = HttpClient.create(productServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .keepAlive(true)
+                .compress(compression)
+                .protocol(h2c
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.ratelimit.ConcurrencyLimiter;
+import com.admincore.microservice.inventory.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limits and sheds load on the endpoints listed under {@code inventory.rate-limit},
+ * before any database or Product Service work is done.
+ * <p>
+ * Each endpoint keeps a {@link TokenBucket} per API key, as identified by
+ * {@link ApiKeyFilter}; a request with no token left gets {@code 429} and a
+ * {@code Retry-After}. Requests within their rate then go through the endpoint's
+ * {@link ConcurrencyLimiter}, which answers {@code 503} once too many are in flight
+ * for the latency seen lately. Requests to other endpoints pass through untouched.
+ * An asynchronous request, such as one answered with a {@code Mono}, holds its slot until
+ * the async processing completes, and its re-dispatch is not counted again.
+ * <p>
+ * Runs only inside the Spring Security filter chain, after {@link ApiKeyFilter};
+ * {@link RateLimitConfig} turns off its servlet registration.
+ */
+public class RateLimitFilter implements Filter {
+
+    private static final String UNKNOWN_KEY = "none";
+    private static final byte[] TOO_MANY_REQUESTS_BODY = ("{\"data\":null,\"errors\":[{\"status\":\"429\","
+            + "\"title\":\"Too Many Requests\",\"detail\":\"Rate limit exceeded for this API key\"}]}")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SERVICE_UNAVAILABLE_BODY = ("{\"data\":null,\"errors\":[{\"status\":\"503\","
+            + "\"title\":\"Service Unavailable\",\"detail\":\"Too many requests in progress, retry later\"}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final EndpointLimit[] endpoints;
+    private final LongSupplier clock;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.clock = clock;
+        this.endpoints = properties.getEndpoints().entrySet().stream()
+                .map(entry -> new EndpointLimit(entry.getKey(), entry.getValue(), meterRegistry, clock))
+                .toArray(EndpointLimit[]::new);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        EndpointLimit endpoint = request.getDispatcherType() == DispatcherType.REQUEST ? match(httpRequest) : null;
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Object key = httpRequest.getAttribute(ApiKeyFilter.KEY_ATTRIBUTE);
+        long now = clock.getAsLong();
+        long waitNanos = endpoint.bucket(key instanceof String fingerprint ? fingerprint : UNKNOWN_KEY, now)
+                .tryAcquire(now);
+        if (waitNanos > 0) {
+            endpoint.rateLimited.increment();
+            reject((HttpServletResponse) response, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS_BODY,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+            return;
+        }
+        if (!endpoint.concurrency.tryAcquire()) {
+            endpoint.shed.increment();
+            reject((HttpServletResponse) response, HttpStatus.SERVICE_UNAVAILABLE, SERVICE_UNAVAILABLE_BODY, 1);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(endpoint.concurrency, now));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                endpoint.concurrency.release(clock.getAsLong() - now);
+            }
+        }
+    }
+
+    private EndpointLimit match(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath().length();
+        String method = request.getMethod();
+        for (EndpointLimit endpoint : endpoints) {
+            if (endpoint.method.equals(method)
+                    && uri.length() - offset == endpoint.path.length()
+                    && uri.startsWith(endpoint.path, offset)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, byte[] body, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Releases the concurrency slot of an asynchronous request; {@code onComplete} is
+     * called once however the request ends, including after a timeout or an error.
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final ConcurrencyLimiter concurrency;
+        private final long start;
+
+        ReleaseOnComplete(ConcurrencyLimiter concurrency, long start) {
+            this.concurrency = concurrency;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            concurrency.release(clock.getAsLong() - start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private static final class EndpointLimit {
+
+        private final String method;
+        private final String path;
+        private final RateLimitProperties.Limit defaultLimit;
+        private final Map<String, RateLimitProperties.Limit> keyLimits;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final ConcurrencyLimiter concurrency;
+        private final Counter rateLimited;
+        private final Counter shed;
+
+        EndpointLimit(String name, RateLimitProperties.Endpoint config, MeterRegistry meterRegistry, LongSupplier clock) {
+            if (config.getPath() == null || config.getPath().isBlank()) {
+                throw new IllegalStateException("inventory.rate-limit.endpoints." + name + ".path is required");
+            }
+            this.method = config.getMethod().toUpperCase(Locale.ROOT);
+            this.path = config.getPath();
+            this.defaultLimit = config.getLimit();
+            this.keyLimits = Map.copyOf(config.getKeys());
+            RateLimitProperties.Concurrency limits = config.getConcurrency();
+            this.concurrency = new ConcurrencyLimiter(limits.getMinLimit(), limits.getMaxLimit(),
+                    limits.getLatencyThreshold(), limits.getWindow(), limits.getMinSamples(), clock);
+            this.rateLimited = rejectedCounter(meterRegistry, name, "rate");
+            this.shed = rejectedCounter(meterRegistry, name, "concurrency");
+            Gauge.builder("inventory.concurrency.limit", concurrency, ConcurrencyLimiter::limit)
+                    .description("Current adaptive concurrency limit of the endpoint")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            Gauge.builder("inventory.concurrency.in-flight", concurrency, ConcurrencyLimiter::inFlight)
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Keys come from a fixed set of fingerprint strings, so after the first request of
+         * each key this is a plain lookup.
+         */
+        TokenBucket bucket(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            return buckets.computeIfAbsent(key, k -> {
+                RateLimitProperties.Limit limit = keyLimits.getOrDefault(k, defaultLimit);
+                return new TokenBucket(limit.getRate(), limit.getBurst(), now);
+            });
+        }
+
+        private static Counter rejectedCounter(MeterRegistry meterRegistry, String endpoint, String reason) {
+            return Counter.builder("inventory.rate-limit.rejected")
+                    .description("Requests turned away before reaching the endpoint")
+                    .tag("endpoint", endpoint)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
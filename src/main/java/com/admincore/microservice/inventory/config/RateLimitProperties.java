@@ -0,0 +1,47 @@
+package com.admincore.microservice.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code inventory.rate-limit.*}: one entry per limited endpoint, each with a default
+ * token bucket per API key, optional buckets for specific keys (by the fingerprint shown
+ * in the {@code security.api-key.requests} metric) and an adaptive concurrency limit.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Data
+    public static class Endpoint {
+        private String method = "POST";
+        private String path;
+        private Limit limit = new Limit();
+        private Map<String, Limit> keys = new LinkedHashMap<>();
+        private Concurrency concurrency = new Concurrency();
+    }
+
+    @Data
+    public static class Limit {
+        /** Requests per second refilled into each key's bucket. */
+        private double rate = 100;
+        private int burst = 200;
+    }
+
+    @Data
+    public static class Concurrency {
+        private int minLimit = 4;
+        private int maxLimit = 64;
+        /** p99 above which the concurrency limit is reduced. */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private Duration window = Duration.ofSeconds(1);
+        private int minSamples = 20;
+    }
+}
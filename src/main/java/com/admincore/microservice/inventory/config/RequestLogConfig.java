@@ -0,0 +1,25 @@
+package com.admincore.microservice.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "inventory.request-log.enabled", havingValue = "true")
+public class RequestLogConfig {
+
+    /**
+     * Registered ahead of the security chain, so requests rejected there (401, 429, 503)
+     * are sampled too and the duration covers the whole filter chain.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestLogFilter> requestLogFilterRegistration(
+            @Value("${inventory.request-log.sample-rate:0.01}") double sampleRate) {
+        FilterRegistrationBean<RequestLogFilter> registration = new FilterRegistrationBean<>(new RequestLogFilter(sampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,64 @@
+package com.admincore.microservice.inventory.config;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Logs one line per HTTP request (method, path, status and duration) for a random
+ * {@code sample-rate} fraction of requests, and for every request answered with a 5xx.
+ * <p>
+ * Replaces per-request logging in the controllers and services: the sampling decision
+ * is a thread-local random draw, and nothing is formatted for the requests left out.
+ * The fields go out as key-value pairs so the structured console format of the
+ * {@code prod} profile emits them as JSON members.
+ */
+@Slf4j
+public class RequestLogFilter implements Filter {
+
+    private final double sampleRate;
+    private final DoubleSupplier random;
+
+    public RequestLogFilter(double sampleRate) {
+        this(sampleRate, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RequestLogFilter(double sampleRate, DoubleSupplier random) {
+        this.sampleRate = sampleRate;
+        this.random = random;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!log.isInfoEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean sampled = random.getAsDouble() < sampleRate;
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int status = ((HttpServletResponse) response).getStatus();
+            if (sampled || status >= 500) {
+                HttpServletRequest httpRequest = (HttpServletRequest) request;
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                log.atInfo()
+                        .addKeyValue("http.request.method", httpRequest.getMethod())
+                        .addKeyValue("url.path", httpRequest.getRequestURI())
+                        .addKeyValue("http.response.status_code", status)
+                        .addKeyValue("event.duration_ms", millis)
+                        .log("{} {} -> {} in {} ms", httpRequest.getMethod(), httpRequest.getRequestURI(), status, millis);
+            }
+        }
+    }
+}
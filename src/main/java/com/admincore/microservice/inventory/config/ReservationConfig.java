@@ -0,0 +1,24 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.reservation.ReservationSweeper;
+import com.admincore.microservice.inventory.service.ReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "inventory.reservations.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+    public ReservationSweeper reservationSweeper(
+            ReservationService reservationService,
+            @Value("${inventory.reservations.sweeper.interval:5s}") Duration interval,
+            @Value("${inventory.reservations.sweeper.batch-size:500}") int batchSize) {
+        return new ReservationSweeper(reservationService, interval, batchSize);
+    }
+}
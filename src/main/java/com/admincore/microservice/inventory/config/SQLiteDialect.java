@@ -1,11 +1,30 @@
 package com.admincore.microservice.inventory.config;
 
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
 import org.hibernate.dialect.DatabaseVersion;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.dialect.identity.IdentityColumnSupport;
 import org.hibernate.dialect.identity.IdentityColumnSupportImpl;
+import org.hibernate.dialect.pagination.LimitHandler;
+import org.hibernate.dialect.pagination.LimitOffsetLimitHandler;
+import org.hibernate.dialect.unique.AlterTableUniqueDelegate;
+import org.hibernate.dialect.unique.UniqueDelegate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.SqlAstTranslatorFactory;
+import org.hibernate.sql.ast.spi.AbstractSqlAstTranslator;
+import org.hibernate.sql.ast.spi.StandardSqlAstTranslatorFactory;
+import org.hibernate.sql.ast.tree.Statement;
+import org.hibernate.sql.ast.tree.select.QueryPart;
+import org.hibernate.sql.exec.spi.JdbcOperation;
+
+import java.util.stream.Collectors;
 
 public class SQLiteDialect extends Dialect {
+    private final UniqueDelegate uniqueDelegate = new SQLiteUniqueDelegate(this);
+
     public SQLiteDialect() {
         super(DatabaseVersion.make(3));
     }
@@ -23,6 +42,11 @@ public class SQLiteDialect extends Dialect {
                 return "select last_insert_rowid()";
             }
 
+            @Override
+            public boolean hasDataTypeInIdentityColumn() {
+                return false;
+            }
+
             @Override
             public String getIdentityColumnString(int type) {
                 return "integer";
@@ -30,6 +54,38 @@ public class SQLiteDialect extends Dialect {
         };
     }
 
+    /**
+     * SQLite has no {@code fetch first ... rows only}; paged queries need {@code limit ? offset ?},
+     * both in native SQL and in the SQL Hibernate renders for HQL and {@code Limit} parameters.
+     */
+    @Override
+    public LimitHandler getLimitHandler() {
+        return LimitOffsetLimitHandler.INSTANCE;
+    }
+
+    @Override
+    public SqlAstTranslatorFactory getSqlAstTranslatorFactory() {
+        return new StandardSqlAstTranslatorFactory() {
+            @Override
+            protected <T extends JdbcOperation> SqlAstTranslator<T> buildTranslator(
+                    SessionFactoryImplementor sessionFactory, Statement statement) {
+                return new AbstractSqlAstTranslator<>(sessionFactory, statement) {
+                    @Override
+                    public void visitOffsetFetchClause(QueryPart queryPart) {
+                        if (!isRowNumberingCurrentQueryPart()) {
+                            renderLimitOffsetClause(queryPart);
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public UniqueDelegate getUniqueDelegate() {
+        return uniqueDelegate;
+    }
+
     @Override
     public boolean supportsTemporaryTables() {
         return true;
@@ -49,4 +105,33 @@ public class SQLiteDialect extends Dialect {
     public boolean supportsCascadeDelete() {
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * SQLite has no {@code alter table ... add constraint}, so unique keys are created as unique
+     * indexes. {@code if not exists} lets {@code ddl-auto: update} add them to database files whose
+     * table was created without one, and leaves them alone on every later start.
+     */
+    static class SQLiteUniqueDelegate extends AlterTableUniqueDelegate {
+
+        SQLiteUniqueDelegate(Dialect dialect) {
+            super(dialect);
+        }
+
+        @Override
+        public String getAlterTableToAddUniqueKeyCommand(UniqueKey uniqueKey, Metadata metadata,
+                                                         SqlStringGenerationContext context) {
+            String columns = uniqueKey.getColumns().stream()
+                    .map(column -> column.getQuotedName(dialect))
+                    .collect(Collectors.joining(", "));
+            return "create unique index if not exists " + uniqueKey.getName()
+                    + " on " + context.format(uniqueKey.getTable().getQualifiedTableName()) + " (" + columns + ")";
+        }
+
+        @Override
+        public String getAlterTableToDropUniqueKeyCommand(UniqueKey uniqueKey, Metadata metadata,
+                                                          SqlStringGenerationContext context) {
+            // Dropping the table drops its indexes; an update must not rebuild them on every start.
+            return "";
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.admincore.microservice.inventory.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,9 +14,11 @@ import org.springframework.security.web.authentication.www.BasicAuthenticationFi
 public class SecurityConfig {
 
     private final ApiKeyFilter apiKeyFilter;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
 
-    public SecurityConfig(ApiKeyFilter apiKeyFilter) {
+    public SecurityConfig(ApiKeyFilter apiKeyFilter, ObjectProvider<RateLimitFilter> rateLimitFilter) {
         this.apiKeyFilter = apiKeyFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -27,7 +31,19 @@ public class SecurityConfig {
                         .anyRequest().permitAll()
                 )
                 .addFilterBefore(apiKeyFilter, BasicAuthenticationFilter.class);
+        rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, ApiKeyFilter.class));
 
         return http.build();
     }
+
+    /**
+     * Keeps Spring Boot from also registering the filter with the servlet container,
+     * which would run it a second time outside the security chain.
+     */
+    @Bean
+    public FilterRegistrationBean<ApiKeyFilter> apiKeyFilterRegistration() {
+        FilterRegistrationBean<ApiKeyFilter> registration = new FilterRegistrationBean<>(apiKeyFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.admincore.microservice.inventory.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * One-writer / many-reader connection pools over a single SQLite file in WAL mode.
+ * <p>
+ * SQLite allows a single writer at a time, so the writer pool holds exactly one
+ * connection and concurrent writers queue in the pool instead of failing with
+ * {@code SQLITE_BUSY}. Readers get their own pool of read-only connections, which
+ * WAL lets run alongside the writer.
+ */
+public class SqliteConnectionPools implements AutoCloseable {
+
+    private final HikariDataSource writer;
+    private final HikariDataSource reader;
+
+    public SqliteConnectionPools(String url, int readerPoolSize, Duration busyTimeout, int cacheSizeKib,
+                                 long mmapSize, String synchronous, Duration writerAcquireTimeout) {
+        HikariConfig writerConfig = baseConfig("inventory-sqlite-writer", url, busyTimeout, cacheSizeKib, mmapSize);
+        writerConfig.addDataSourceProperty("journal_mode", "WAL");
+        writerConfig.addDataSourceProperty("synchronous", synchronous);
+        writerConfig.setMaximumPoolSize(1);
+        writerConfig.setMinimumIdle(1);
+        writerConfig.setConnectionTimeout(writerAcquireTimeout.toMillis());
+        // Opened first so the database file exists and is switched to WAL before any reader connects.
+        this.writer = new HikariDataSource(writerConfig);
+
+        HikariConfig readerConfig = baseConfig("inventory-sqlite-reader", url, busyTimeout, cacheSizeKib, mmapSize);
+        // SQLITE_OPEN_READONLY: the driver opens the file read-only instead of flipping the flag later.
+        readerConfig.addDataSourceProperty("open_mode", "1");
+        readerConfig.setMaximumPoolSize(Math.max(1, readerPoolSize));
+        readerConfig.setReadOnly(true);
+        this.reader = new HikariDataSource(readerConfig);
+    }
+
+    /**
+     * Routes read-only transactions to the reader pool and everything else to the writer.
+     * The physical connection is only fetched once the transaction's read-only flag is known.
+     */
+    public DataSource routingDataSource() {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writer);
+        dataSource.setReadOnlyDataSource(reader);
+        return dataSource;
+    }
+
+    public HikariDataSource writer() {
+        return writer;
+    }
+
+    public HikariDataSource reader() {
+        return reader;
+    }
+
+    @Override
+    public void close() {
+        reader.close();
+        writer.close();
+    }
+
+    private static HikariConfig baseConfig(String poolName, String url, Duration busyTimeout, int cacheSizeKib, long mmapSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeout.toMillis()));
+        // Negative cache_size is in KiB rather than pages.
+        config.addDataSourceProperty("cache_size", String.valueOf(-Math.abs(cacheSizeKib)));
+        config.addDataSourceProperty("temp_store", "MEMORY");
+        config.setConnectionInitSql("PRAGMA mmap_size = " + mmapSize);
+        return config;
+    }
+}
@@ -0,0 +1,49 @@
+package com.admincore.microservice.inventory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@Profile("sqlite-tuned")
+@Slf4j
+public class SqliteTuningConfig {
+
+    @Bean(destroyMethod = "close")
+    public SqliteConnectionPools sqliteConnectionPools(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${inventory.sqlite.reader-pool-size:4}") int readerPoolSize,
+            @Value("${inventory.sqlite.busy-timeout:5s}") Duration busyTimeout,
+            @Value("${inventory.sqlite.cache-size-kib:20000}") int cacheSizeKib,
+            @Value("${inventory.sqlite.mmap-size:268435456}") long mmapSize,
+            @Value("${inventory.sqlite.synchronous:NORMAL}") String synchronous,
+            @Value("${inventory.sqlite.writer-acquire-timeout:30s}") Duration writerAcquireTimeout,
+            MeterRegistry meterRegistry) {
+        log.info("Opening SQLite {} in WAL mode with 1 writer and {} reader connections", url, readerPoolSize);
+        SqliteConnectionPools pools = new SqliteConnectionPools(url, readerPoolSize, busyTimeout, cacheSizeKib, mmapSize, synchronous, writerAcquireTimeout);
+        // Spring Boot only reaches the writer behind the routing DataSource, so both pools publish hikaricp.* here.
+        bindMetrics(pools.writer(), meterRegistry);
+        bindMetrics(pools.reader(), meterRegistry);
+        return pools;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(SqliteConnectionPools sqliteConnectionPools) {
+        return sqliteConnectionPools.routingDataSource();
+    }
+
+    private static void bindMetrics(HikariDataSource pool, MeterRegistry meterRegistry) {
+        if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+            pool.setMetricRegistry(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.cache.StockCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class StockCacheConfig {
+
+    @Bean
+    public StockCache stockCache(
+            @Value("${inventory.stock-cache.enabled:true}") boolean enabled,
+            @Value("${inventory.stock-cache.maximum-size:100000}") long maximumSize,
+            @Value("${inventory.stock-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        StockCache cache = new StockCache(enabled, maximumSize, ttl);
+        Gauge.builder("cache.size", cache, StockCache::size)
+                .tag("cache", "inventory-stock")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, StockCache::hitCount)
+                .tag("cache", "inventory-stock")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, StockCache::missCount)
+                .tag("cache", "inventory-stock")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        return cache;
+    }
+}
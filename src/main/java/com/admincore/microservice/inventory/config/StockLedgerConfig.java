@@ -0,0 +1,38 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.ledger.StockSnapshotter;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The stock ledger exists only with the {@code jpa} engine; the in-memory engine keeps
+ * its own journal and records no movements.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+public class StockLedgerConfig {
+
+    /**
+     * Runs once all singletons exist and before the web server starts, so no request can
+     * append a movement for a product before its opening balance is in.
+     */
+    @Bean
+    public SmartInitializingSingleton openingStockBackfill(StockLedgerService stockLedgerService) {
+        return () -> stockLedgerService.backfillOpeningBalances(Instant.now());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "inventory.ledger.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+    public StockSnapshotter stockSnapshotter(
+            StockLedgerService stockLedgerService,
+            @Value("${inventory.ledger.snapshot.interval:1m}") Duration interval) {
+        return new StockSnapshotter(stockLedgerService, interval);
+    }
+}
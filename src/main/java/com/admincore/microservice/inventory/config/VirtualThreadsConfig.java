@@ -0,0 +1,38 @@
+package com.admincore.microservice.inventory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor jdbcPinningGuard(Environment environment) {
+        int configuredPermits = environment.getProperty("inventory.virtual-threads.jdbc-permits", Integer.class, 0);
+        Duration acquireTimeout = environment.getProperty("inventory.virtual-threads.jdbc-acquire-timeout", Duration.class, Duration.ofSeconds(30));
+        int permits = configuredPermits > 0
+                ? configuredPermits
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof PinningGuardDataSource)) {
+                    log.info("Limiting concurrent JDBC access on data source '{}' to {} virtual threads", beanName, permits);
+                    return new PinningGuardDataSource(dataSource, permits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.admincore.microservice.inventory.config;
+
+import com.admincore.microservice.inventory.write.InventoryWriteQueue;
+import com.admincore.microservice.inventory.write.JdbcSavepoints;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "inventory.write-queue.enabled", havingValue = "true")
+public class WriteQueueConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public InventoryWriteQueue inventoryWriteQueue(
+            TransactionTemplate transactionTemplate,
+            @Value("${inventory.write-queue.capacity:10000}") int capacity,
+            @Value("${inventory.write-queue.max-batch-size:64}") int maxBatchSize,
+            @Value("${inventory.write-queue.offer-timeout:1s}") Duration offerTimeout,
+            @Value("${inventory.write-queue.commit-timeout:10s}") Duration commitTimeout,
+            MeterRegistry meterRegistry) {
+        if (!(transactionTemplate.getTransactionManager() instanceof JpaTransactionManager transactionManager)) {
+            throw new IllegalStateException("inventory.write-queue needs a JpaTransactionManager");
+        }
+        JdbcSavepoints savepoints = new JdbcSavepoints(transactionManager.getDataSource(),
+                transactionManager.getEntityManagerFactory());
+        InventoryWriteQueue queue = new InventoryWriteQueue(transactionTemplate, savepoints, capacity, maxBatchSize,
+                offerTimeout, commitTimeout);
+        Gauge.builder("inventory.write.queue.size", queue, InventoryWriteQueue::size)
+                .register(meterRegistry);
+        return queue;
+    }
+}
@@ -1,7 +1,14 @@
 package com.admincore.microservice.inventory.controller;
 
+import com.admincore.microservice.inventory.config.ApiKeyFilter;
 import com.admincore.microservice.inventory.dto.*;
-import com.admincore.microservice.inventory.service.impl.InventoryServiceImpl;
+import com.admincore.microservice.inventory.idempotency.IdempotencyStore;
+import com.admincore.microservice.inventory.service.InventoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -11,13 +18,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @RestController
@@ -28,7 +43,17 @@ import java.util.List;
 @SecurityRequirement(name = "X-API-KEY")
 public class InventoryController {
 
-    private final InventoryServiceImpl inventoryService;
+    private static final String STREAM_FORMAT_NDJSON = "ndjson";
+    private static final TypeReference<InventoryResponse> INVENTORY_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<PurchaseResponse> PURCHASE_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<PurchaseResponse>> PURCHASE_RESPONSES = new TypeReference<>() {
+    };
+
+    private final InventoryService inventoryService;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(
@@ -53,9 +78,15 @@ public class InventoryController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = InventoryRequest.class))
             )
-            @Valid @RequestBody InventoryRequest request) {
-        log.info("Received request to create or update inventory for product ID: {}", request.getProductId());
-        InventoryResponse response = inventoryService.createOrUpdateInventory(request);
+            @Valid @RequestBody InventoryRequest request,
+            @Parameter(in = ParameterIn.HEADER, description = "Clave opcional para reintentar la operación sin aplicarla dos veces")
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to create or update inventory for product ID: {}", request.getProductId());
+        }
+        InventoryResponse response = idempotencyStore.execute("inventory", ApiKeyFilter.keyFingerprint(httpRequest),
+                idempotencyKey, request, INVENTORY_RESPONSE, () -> inventoryService.createOrUpdateInventory(request));
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new JsonApiResponse<>(response));
     }
@@ -76,25 +107,75 @@ public class InventoryController {
     public ResponseEntity<JsonApiResponse<InventoryResponse>> getInventoryByProductId(
             @Parameter(in = ParameterIn.PATH, description = "ID del producto", required = true, schema = @Schema(type = "integer", format = "int64"))
             @PathVariable Long productId) {
-        log.info("Received request to get inventory for product ID: {}", productId);
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to get inventory for product ID: {}", productId);
+        }
         InventoryResponse response = inventoryService.getInventoryByProductId(productId);
         return ResponseEntity.ok(new JsonApiResponse<>(response));
     }
 
     @GetMapping
     @Operation(
-            summary = "Listar todos los inventarios",
-            description = "Obtiene una lista de todos los registros de inventario."
+            summary = "Listar inventarios paginados",
+            description = "Obtiene una página de registros de inventario ordenados por ID. La siguiente página se indica en links.next (paginación por cursor con page[after])."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de inventarios obtenida exitosamente",
+            @ApiResponse(responseCode = "200", description = "Página de inventarios obtenida exitosamente",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = JsonApiResponse.class)))
     })
-    public ResponseEntity<JsonApiResponse<List<InventoryResponse>>> getAllInventories() {
-        log.info("Received request to get all inventories");
-        List<InventoryResponse> response = inventoryService.getAllInventories();
-        return ResponseEntity.ok(new JsonApiResponse<>(response));
+    public ResponseEntity<JsonApiResponse<List<InventoryResponse>>> getAllInventories(
+            @Parameter(description = "Tamaño de página (máximo " + PageLinks.MAX_SIZE + ")")
+            @RequestParam(name = PageLinks.SIZE_PARAM, defaultValue = PageLinks.DEFAULT_SIZE) int size,
+            @Parameter(description = "Cursor: ID del último registro de la página anterior")
+            @RequestParam(name = PageLinks.AFTER_PARAM, required = false) Long after) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to get inventories after ID: {}", after);
+        }
+        int pageSize = PageLinks.clampSize(size);
+        InventoryPage page = inventoryService.getInventoryPage(after, pageSize);
+        return ResponseEntity.ok(new JsonApiResponse<>(page.getItems(), PageLinks.fromCurrentRequest().of(page, after, pageSize)));
+    }
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+            summary = "Exportar todos los inventarios",
+            description = "Escribe todos los registros directamente desde un cursor JDBC, sin cargar la tabla en memoria. " +
+                    "Por defecto devuelve un documento JSON:API con un arreglo data; con format=ndjson o " +
+                    "Accept: application/x-ndjson, un registro por línea."
+    )
+    public ResponseEntity<StreamingResponseBody> streamInventories(
+            @Parameter(description = "Formato de salida: json (por defecto) o ndjson; tiene prioridad sobre Accept")
+            @RequestParam(name = "format", required = false) String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean ndjson = format != null ? STREAM_FORMAT_NDJSON.equalsIgnoreCase(format) : prefersNdjson(accept);
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to stream all inventories as {}", ndjson ? "NDJSON" : "JSON");
+        }
+        ObjectWriter rowWriter = rowWriter();
+        if (ndjson) {
+            StreamingResponseBody body = out -> {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.setRootValueSeparator(null);
+                    inventoryService.streamInventories(inventory -> {
+                        write(rowWriter, generator, inventory);
+                        writeRaw(generator, '\n');
+                    });
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("data");
+                inventoryService.streamInventories(inventory -> write(rowWriter, generator, inventory));
+                generator.writeEndArray();
+                generator.writeNullField("errors");
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PostMapping("/purchases")
@@ -127,10 +208,104 @@ public class InventoryController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = PurchaseRequest.class))
             )
-            @Valid @RequestBody PurchaseRequest request) {
-        log.info("Received purchase request for product ID: {} with quantity: {}", request.getProductId(), request.getQuantity());
-        PurchaseResponse response = inventoryService.purchase(request);
+            @Valid @RequestBody PurchaseRequest request,
+            @Parameter(in = ParameterIn.HEADER, description = "Clave opcional para reintentar la operación sin aplicarla dos veces")
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received purchase request for product ID: {} with quantity: {}", request.getProductId(), request.getQuantity());
+        }
+        PurchaseResponse response = idempotencyStore.execute("purchase", ApiKeyFilter.keyFingerprint(httpRequest),
+                idempotencyKey, request, PURCHASE_RESPONSE, () -> inventoryService.purchase(request));
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new JsonApiResponse<>(response));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/purchases/batch")
+    @Operation(
+            summary = "Procesar una compra de varias líneas",
+            description = """
+            Procesa varias líneas de compra en una sola transacción.
+            
+            1. Verifica una sola vez cada producto distinto en el Product Service.
+            2. Descuenta el stock de todas las líneas en un lote JDBC.
+            3. Si alguna línea no tiene stock suficiente, no se aplica ninguna.
+            4. Retorna el resultado de cada línea en el mismo orden de la solicitud.
+            """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Compra procesada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Error en la solicitud (producto no encontrado, stock insuficiente)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Inventario no encontrado para alguno de los productos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public ResponseEntity<JsonApiResponse<List<PurchaseResponse>>> purchaseBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Líneas de la compra",
+                    required = true,
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchPurchaseRequest.class))
+            )
+            @Valid @RequestBody BatchPurchaseRequest request,
+            @Parameter(in = ParameterIn.HEADER, description = "Clave opcional para reintentar la operación sin aplicarla dos veces")
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received batch purchase request with {} lines", request.getPurchases().size());
+        }
+        List<PurchaseResponse> response = idempotencyStore.execute("purchase-batch", ApiKeyFilter.keyFingerprint(httpRequest),
+                idempotencyKey, request, PURCHASE_RESPONSES, () -> inventoryService.purchaseBatch(request.getPurchases()));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new JsonApiResponse<>(response));
+    }
+
+    /**
+     * NDJSON only when the client ranks it ahead of JSON; no Accept header or a wildcard
+     * gets the JSON:API document.
+     */
+    private static boolean prefersNdjson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            if (MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(type)) {
+                return true;
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private ObjectWriter rowWriter() {
+        return objectMapper.writerFor(InventoryResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static void write(ObjectWriter rowWriter, JsonGenerator generator, InventoryResponse inventory) {
+        try {
+            rowWriter.writeValue(generator, inventory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeRaw(JsonGenerator generator, char c) {
+        try {
+            generator.writeRaw(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
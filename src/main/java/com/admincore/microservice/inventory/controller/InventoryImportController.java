@@ -0,0 +1,105 @@
+package com.admincore.microservice.inventory.controller;
+
+import com.admincore.microservice.inventory.dto.InventoryImportEvent;
+import com.admincore.microservice.inventory.service.InventoryImportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+@RestController
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+@RequestMapping("/inventory/import")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "import", description = "Importación masiva de stock")
+@SecurityRequirement(name = "X-API-KEY")
+public class InventoryImportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final InventoryImportService inventoryImportService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Importar stock desde CSV",
+            description = """
+            Crea o actualiza la cantidad de muchos productos leyendo el cuerpo por líneas, sin cargarlo entero en memoria.
+            
+            1. Cada línea es productId,quantity; una primera línea de cabecera se ignora.
+            2. Los productos se validan en el Product Service por lotes.
+            3. Cada lote se aplica con un upsert JDBC por lotes en su propia transacción.
+            4. La respuesta es NDJSON: una línea ROW_ERROR por fila rechazada, una PROGRESS por lote y una COMPLETED o ABORTED al final.
+            """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Informe de la importación (NDJSON)",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = InventoryImportEvent.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> importCsv(InputStream body) {
+        log.info("Received CSV stock import");
+        return importStock(body, InventoryImportService.Format.CSV);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Importar stock desde NDJSON",
+            description = "Igual que la importación CSV, con un objeto {\"productId\": 1, \"quantity\": 10} por línea."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Informe de la importación (NDJSON)",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = InventoryImportEvent.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> importNdjson(InputStream body) {
+        log.info("Received NDJSON stock import");
+        return importStock(body, InventoryImportService.Format.NDJSON);
+    }
+
+    private ResponseEntity<StreamingResponseBody> importStock(InputStream body, InventoryImportService.Format format) {
+        ObjectWriter eventWriter = objectMapper.writerFor(InventoryImportEvent.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody response = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                inventoryImportService.importStock(body, format, event -> write(eventWriter, generator, event));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(response);
+    }
+
+    /**
+     * Writes one event per line and flushes after every batch, so the client sees progress as it happens.
+     */
+    private static void write(ObjectWriter eventWriter, JsonGenerator generator, InventoryImportEvent event) {
+        try {
+            eventWriter.writeValue(generator, event);
+            generator.writeRaw('\n');
+            if (event.getType() != InventoryImportEvent.Type.ROW_ERROR) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.admincore.microservice.inventory.controller;
+
+import com.admincore.microservice.inventory.dto.InventoryPage;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds JSON:API cursor pagination links ({@code page[size]}, {@code page[after]}).
+ */
+final class PageLinks {
+
+    static final String SIZE_PARAM = "page[size]";
+    static final String AFTER_PARAM = "page[after]";
+    static final String DEFAULT_SIZE = "100";
+    static final int MAX_SIZE = 1000;
+
+    private final UriComponents base;
+
+    private PageLinks(UriComponents base) {
+        this.base = base;
+    }
+
+    /**
+     * Captures the current request URI; must be called on the request thread.
+     */
+    static PageLinks fromCurrentRequest() {
+        return new PageLinks(ServletUriComponentsBuilder.fromCurrentRequestUri().replaceQuery(null).build());
+    }
+
+    static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Carries a query parameter of the current request over to the generated links;
+     * {@code null} values are left out.
+     */
+    PageLinks with(String name, Object value) {
+        if (value == null) {
+            return this;
+        }
+        return new PageLinks(UriComponentsBuilder.newInstance().uriComponents(base).queryParam(name, value).build());
+    }
+
+    Map<String, String> of(InventoryPage page, Long after, int size) {
+        return of(page.getNextCursor(), after, size);
+    }
+
+    Map<String, String> of(Long nextCursor, Long after, int size) {
+        Map<String, String> links = new LinkedHashMap<>();
+        links.put("self", link(after, size));
+        if (nextCursor != null) {
+            links.put("next", link(nextCursor, size));
+        }
+        return links;
+    }
+
+    private String link(Long after, int size) {
+        UriComponentsBuilder builder = UriComponentsBuilder.newInstance()
+                .uriComponents(base)
+                .queryParam(SIZE_PARAM, size);
+        if (after != null) {
+            builder.queryParam(AFTER_PARAM, after);
+        }
+        return builder.encode().build().toUriString();
+    }
+}
@@ -0,0 +1,160 @@
+package com.admincore.microservice.inventory.controller;
+
+import com.admincore.microservice.inventory.config.ApiKeyFilter;
+import com.admincore.microservice.inventory.dto.*;
+import com.admincore.microservice.inventory.idempotency.IdempotencyStore;
+import com.admincore.microservice.inventory.service.ReactiveInventoryService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/reactive/inventory")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "inventory-reactive", description = "Variante no bloqueante de las operaciones de inventario")
+@SecurityRequirement(name = "X-API-KEY")
+public class ReactiveInventoryController {
+
+    private static final TypeReference<InventoryResponse> INVENTORY_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<PurchaseResponse> PURCHASE_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<PurchaseResponse>> PURCHASE_RESPONSES = new TypeReference<>() {
+    };
+
+    private final ReactiveInventoryService inventoryService;
+    private final IdempotencyStore idempotencyStore;
+    private final Scheduler jdbcScheduler;
+
+    @PostMapping
+    @Operation(
+            summary = "Crear o actualizar inventario (no bloqueante)",
+            description = "Igual que POST /inventory, pero la consulta al Product Service no bloquea el hilo de la petición y el acceso a base de datos se ejecuta en un pool acotado."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Inventario creado o actualizado exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Error de validación en la solicitud",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public Mono<ResponseEntity<JsonApiResponse<InventoryResponse>>> createOrUpdateInventory(
+            @Valid @RequestBody InventoryRequest request,
+            @Parameter(in = ParameterIn.HEADER, description = "Clave opcional para reintentar la operación sin aplicarla dos veces")
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received reactive request to create or update inventory for product ID: {}", request.getProductId());
+        }
+        return idempotencyStore.executeReactive("inventory", ApiKeyFilter.keyFingerprint(httpRequest), idempotencyKey,
+                        request, INVENTORY_RESPONSE, () -> inventoryService.createOrUpdateInventory(request), jdbcScheduler)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(new JsonApiResponse<>(response)));
+    }
+
+    @GetMapping("/{productId}")
+    @Operation(
+            summary = "Obtener inventario por ID de producto (no bloqueante)",
+            description = "Obtiene la cantidad disponible de un producto específico sin ocupar el hilo de la petición."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Inventario obtenido exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Inventario no encontrado para el ID de producto proporcionado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public Mono<ResponseEntity<JsonApiResponse<InventoryResponse>>> getInventoryByProductId(
+            @Parameter(in = ParameterIn.PATH, description = "ID del producto", required = true, schema = @Schema(type = "integer", format = "int64"))
+            @PathVariable Long productId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received reactive request to get inventory for product ID: {}", productId);
+        }
+        return inventoryService.getInventoryByProductId(productId)
+                .map(response -> ResponseEntity.ok(new JsonApiResponse<>(response)));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Listar inventarios paginados (no bloqueante)",
+            description = "Igual que GET /inventory: una página ordenada por ID con links.next para la siguiente."
+    )
+    public Mono<ResponseEntity<JsonApiResponse<List<InventoryResponse>>>> getAllInventories(
+            @RequestParam(name = PageLinks.SIZE_PARAM, defaultValue = PageLinks.DEFAULT_SIZE) int size,
+            @RequestParam(name = PageLinks.AFTER_PARAM, required = false) Long after) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received reactive request to get inventories after ID: {}", after);
+        }
+        int pageSize = PageLinks.clampSize(size);
+        PageLinks links = PageLinks.fromCurrentRequest();
+        return inventoryService.getInventoryPage(after, pageSize)
+                .map(page -> ResponseEntity.ok(new JsonApiResponse<>(page.getItems(), links.of(page, after, pageSize))));
+    }
+
+    @PostMapping("/purchases")
+    @Operation(
+            summary = "Procesar una compra (no bloqueante)",
+            description = "Igual que POST /inventory/purchases, sin bloquear el hilo de la petición mientras responde el Product Service."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Compra procesada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Error en la solicitud (producto no encontrado, stock insuficiente)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Inventario no encontrado para el producto",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public Mono<ResponseEntity<JsonApiResponse<PurchaseResponse>>> purchase(
+            @Valid @RequestBody PurchaseRequest request,
+            @Parameter(in = ParameterIn.HEADER, description = "Clave opcional para reintentar la operación sin aplicarla dos veces")
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received reactive purchase request for product ID: {} with quantity: {}", request.getProductId(), request.getQuantity());
+        }
+        return idempotencyStore.executeReactive("purchase", ApiKeyFilter.keyFingerprint(httpRequest), idempotencyKey,
+                        request, PURCHASE_RESPONSE, () -> inventoryService.purchase(request), jdbcScheduler)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(new JsonApiResponse<>(response)));
+    }
+
+    @PostMapping("/purchases/batch")
+    @Operation(
+            summary = "Procesar una compra de varias líneas (no bloqueante)",
+            description = "Igual que POST /inventory/purchases/batch; los productos distintos se consultan en paralelo sin bloquear."
+    )
+    public Mono<ResponseEntity<JsonApiResponse<List<PurchaseResponse>>>> purchaseBatch(
+            @Valid @RequestBody BatchPurchaseRequest request,
+            @Parameter(in = ParameterIn.HEADER, description = "Clave opcional para reintentar la operación sin aplicarla dos veces")
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received reactive batch purchase request with {} lines", request.getPurchases().size());
+        }
+        return idempotencyStore.executeReactive("purchase-batch", ApiKeyFilter.keyFingerprint(httpRequest), idempotencyKey,
+                        request, PURCHASE_RESPONSES, () -> inventoryService.purchaseBatch(request.getPurchases()), jdbcScheduler)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(new JsonApiResponse<>(response)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.admincore.microservice.inventory.controller;
+
+import com.admincore.microservice.inventory.dto.JsonApiResponse;
+import com.admincore.microservice.inventory.dto.ReservationRequest;
+import com.admincore.microservice.inventory.dto.ReservationResponse;
+import com.admincore.microservice.inventory.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+@RequestMapping("/inventory/reservations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "reservations", description = "Reservas temporales de stock durante el checkout")
+@SecurityRequirement(name = "X-API-KEY")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @PostMapping
+    @Operation(
+            summary = "Reservar stock",
+            description = """
+            Retiene stock de un producto mientras se procesa el pago.
+            
+            1. Verifica que la cantidad disponible (quantity - reserved) alcance.
+            2. Suma la cantidad a las unidades reservadas del inventario.
+            3. La reserva expira tras ttlSeconds (o el valor configurado) si no se confirma ni se libera.
+            """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reserva creada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Error en la solicitud (stock disponible insuficiente)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Inventario no encontrado para el producto",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public ResponseEntity<JsonApiResponse<ReservationResponse>> reserve(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Datos de la reserva",
+                    required = true,
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReservationRequest.class))
+            )
+            @Valid @RequestBody ReservationRequest request) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received reservation request for product ID: {} with quantity: {}", request.getProductId(), request.getQuantity());
+        }
+        ReservationResponse response = reservationService.reserve(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new JsonApiResponse<>(response));
+    }
+
+    @PostMapping("/{reservationId}/confirm")
+    @Operation(
+            summary = "Confirmar una reserva",
+            description = "Convierte una reserva activa en una venta: descuenta la cantidad del stock y de las unidades reservadas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva confirmada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "409", description = "La reserva ya no está activa o ha expirado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public ResponseEntity<JsonApiResponse<ReservationResponse>> confirm(
+            @Parameter(in = ParameterIn.PATH, description = "ID de la reserva", required = true, schema = @Schema(type = "integer", format = "int64"))
+            @PathVariable Long reservationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to confirm reservation {}", reservationId);
+        }
+        return ResponseEntity.ok(new JsonApiResponse<>(reservationService.confirm(reservationId)));
+    }
+
+    @PostMapping("/{reservationId}/release")
+    @Operation(
+            summary = "Liberar una reserva",
+            description = "Devuelve al stock disponible las unidades de una reserva activa. Liberar una reserva ya liberada o expirada no tiene efecto."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva liberada exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class))),
+            @ApiResponse(responseCode = "409", description = "La reserva ya fue confirmada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public ResponseEntity<JsonApiResponse<ReservationResponse>> release(
+            @Parameter(in = ParameterIn.PATH, description = "ID de la reserva", required = true, schema = @Schema(type = "integer", format = "int64"))
+            @PathVariable Long reservationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to release reservation {}", reservationId);
+        }
+        return ResponseEntity.ok(new JsonApiResponse<>(reservationService.release(reservationId)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.admincore.microservice.inventory.controller;
+
+import com.admincore.microservice.inventory.dto.JsonApiResponse;
+import com.admincore.microservice.inventory.dto.StockBalanceResponse;
+import com.admincore.microservice.inventory.dto.StockMovementPage;
+import com.admincore.microservice.inventory.dto.StockMovementResponse;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+@RequestMapping("/inventory/{productId}/movements")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "movements", description = "Histórico de movimientos de stock")
+@SecurityRequirement(name = "X-API-KEY")
+public class StockMovementController {
+
+    private final StockLedgerService stockLedgerService;
+
+    @GetMapping
+    @Operation(
+            summary = "Listar movimientos de stock de un producto",
+            description = "Obtiene los movimientos de un producto en el intervalo [from, to) ordenados por ID, leídos por el índice (product_id, created_at). La siguiente página se indica en links.next (paginación por cursor con page[after])."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de movimientos obtenida exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public ResponseEntity<JsonApiResponse<List<StockMovementResponse>>> getMovements(
+            @Parameter(in = ParameterIn.PATH, description = "ID del producto", required = true, schema = @Schema(type = "integer", format = "int64"))
+            @PathVariable Long productId,
+            @Parameter(description = "Inicio del intervalo (inclusive, ISO-8601)", example = "2025-01-01T00:00:00Z")
+            @RequestParam(name = "from", required = false) Instant from,
+            @Parameter(description = "Fin del intervalo (exclusivo, ISO-8601)", example = "2025-02-01T00:00:00Z")
+            @RequestParam(name = "to", required = false) Instant to,
+            @Parameter(description = "Tamaño de página (máximo " + PageLinks.MAX_SIZE + ")")
+            @RequestParam(name = PageLinks.SIZE_PARAM, defaultValue = PageLinks.DEFAULT_SIZE) int size,
+            @Parameter(description = "Cursor: ID del último movimiento de la página anterior")
+            @RequestParam(name = PageLinks.AFTER_PARAM, required = false) Long after) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to get stock movements for product ID: {} after ID: {}", productId, after);
+        }
+        int pageSize = PageLinks.clampSize(size);
+        StockMovementPage page = stockLedgerService.getMovements(productId, from, to, after, pageSize);
+        PageLinks links = PageLinks.fromCurrentRequest().with("from", from).with("to", to);
+        return ResponseEntity.ok(new JsonApiResponse<>(page.getItems(), links.of(page.getNextCursor(), after, pageSize)));
+    }
+
+    @GetMapping("/balance")
+    @Operation(
+            summary = "Reconstruir el stock desde el histórico",
+            description = "Calcula la cantidad de un producto a partir de su última instantánea más los movimientos posteriores, sin leer la tabla de inventario."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock reconstruido exitosamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JsonApiResponse.class)))
+    })
+    public ResponseEntity<JsonApiResponse<StockBalanceResponse>> getBalance(
+            @Parameter(in = ParameterIn.PATH, description = "ID del producto", required = true, schema = @Schema(type = "integer", format = "int64"))
+            @PathVariable Long productId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Received request to rebuild stock for product ID: {}", productId);
+        }
+        return ResponseEntity.ok(new JsonApiResponse<>(stockLedgerService.rebuild(productId)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.admincore.microservice.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Datos para procesar una compra de varias líneas en una sola operación")
+public class BatchPurchaseRequest {
+
+    @NotEmpty(message = "Purchases are required")
+    @ArraySchema(schema = @Schema(implementation = PurchaseRequest.class),
+            arraySchema = @Schema(description = "Líneas de la compra; se aplican todas o ninguna"))
+    private List<@Valid PurchaseRequest> purchases;
+}
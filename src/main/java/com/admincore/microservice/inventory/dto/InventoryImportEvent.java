@@ -0,0 +1,48 @@
+package com.admincore.microservice.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Línea del informe de una importación masiva de stock")
+public class InventoryImportEvent {
+    @Schema(description = "Tipo de evento", example = "PROGRESS")
+    private Type type;
+
+    @Schema(description = "Número de línea del cuerpo al que se refiere el error", example = "12")
+    private Long line;
+
+    @Schema(description = "ID del producto de la fila con error", example = "7")
+    private Long productId;
+
+    @Schema(description = "Motivo del error", example = "Product with ID 7 does not exist")
+    private String message;
+
+    @Schema(description = "Filas leídas hasta el momento", example = "1000")
+    private Long processed;
+
+    @Schema(description = "Filas aplicadas hasta el momento", example = "998")
+    private Long imported;
+
+    @Schema(description = "Filas rechazadas hasta el momento", example = "2")
+    private Long failed;
+
+    public enum Type {
+        ROW_ERROR,
+        PROGRESS,
+        COMPLETED,
+        ABORTED
+    }
+
+    public static InventoryImportEvent rowError(long line, Long productId, String message) {
+        return new InventoryImportEvent(Type.ROW_ERROR, line, productId, message, null, null, null);
+    }
+
+    public static InventoryImportEvent counts(Type type, String message, long processed, long imported, long failed) {
+        return new InventoryImportEvent(type, null, null, message, processed, imported, failed);
+    }
+}
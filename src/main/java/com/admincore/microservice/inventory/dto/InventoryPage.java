@@ -0,0 +1,17 @@
+package com.admincore.microservice.inventory.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryPage {
+    private List<InventoryResponse> items;
+    private Long nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
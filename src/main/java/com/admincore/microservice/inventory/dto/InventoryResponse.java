@@ -14,6 +14,12 @@ public class InventoryResponse {
     @Schema(description = "ID del producto asociado", example = "1")
     private Long productId;
 
-    @Schema(description = "Cantidad disponible del producto", example = "100")
+    @Schema(description = "Cantidad en stock del producto", example = "100")
     private Integer quantity;
+
+    @Schema(description = "Unidades retenidas por reservas activas", example = "5")
+    private Integer reserved;
+
+    @Schema(description = "Cantidad disponible para la venta (quantity - reserved)", example = "95")
+    private Integer available;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.admincore.microservice.inventory.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
@@ -17,11 +18,21 @@ public class JsonApiResponse<T> {
     @Schema(description = "Lista de errores, si los hay")
     private List<Map<String, Object>> errors;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Enlaces de paginación (self, next), si aplica")
+    private Map<String, String> links;
+
     public JsonApiResponse(T data) {
         this.data = data;
         this.errors = null;
     }
 
+    public JsonApiResponse(T data, Map<String, String> links) {
+        this.data = data;
+        this.errors = null;
+        this.links = links;
+    }
+
     public JsonApiResponse(List<Map<String, Object>> errors) {
         this.data = null;
         this.errors = errors;
@@ -0,0 +1,26 @@
+package com.admincore.microservice.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Datos para reservar stock de un producto")
+public class ReservationRequest {
+
+    @NotNull(message = "Product ID is required")
+    @Schema(description = "ID del producto a reservar", example = "1")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    @Schema(description = "Cantidad a reservar", example = "2", minimum = "1")
+    private Integer quantity;
+
+    @Positive(message = "TTL must be positive")
+    @Schema(description = "Segundos que dura la reserva; si se omite se usa el valor configurado", example = "600")
+    private Long ttlSeconds;
+}
@@ -0,0 +1,28 @@
+package com.admincore.microservice.inventory.dto;
+
+import com.admincore.microservice.inventory.model.ReservationStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Datos de una reserva de stock")
+public class ReservationResponse {
+    @Schema(description = "ID de la reserva", example = "1")
+    private Long id;
+
+    @Schema(description = "ID del producto reservado", example = "1")
+    private Long productId;
+
+    @Schema(description = "Cantidad reservada", example = "2")
+    private Integer quantity;
+
+    @Schema(description = "Estado de la reserva", example = "ACTIVE")
+    private ReservationStatus status;
+
+    @Schema(description = "Momento en que la reserva expira si no se confirma", example = "2025-01-01T12:10:00Z")
+    private Instant expiresAt;
+}
@@ -0,0 +1,22 @@
+package com.admincore.microservice.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock de un producto reconstruido desde el histórico de movimientos")
+public class StockBalanceResponse {
+    @Schema(description = "ID del producto", example = "1")
+    private Long productId;
+
+    @Schema(description = "Cantidad reconstruida (instantánea más movimientos posteriores)", example = "97")
+    private Integer quantity;
+
+    @Schema(description = "Cantidad según la última instantánea, o 0 si no había", example = "100")
+    private Integer snapshotQuantity;
+
+    @Schema(description = "Último movimiento incluido en esa instantánea, o null si no había", example = "120")
+    private Long snapshotMovementId;
+}
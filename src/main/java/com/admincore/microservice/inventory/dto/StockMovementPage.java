@@ -0,0 +1,17 @@
+package com.admincore.microservice.inventory.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementPage {
+    private List<StockMovementResponse> items;
+    private Long nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
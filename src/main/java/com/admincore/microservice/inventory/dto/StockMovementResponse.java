@@ -0,0 +1,28 @@
+package com.admincore.microservice.inventory.dto;
+
+import com.admincore.microservice.inventory.model.MovementType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Movimiento de stock registrado en el histórico")
+public class StockMovementResponse {
+    @Schema(description = "ID del movimiento", example = "1")
+    private Long id;
+
+    @Schema(description = "ID del producto", example = "1")
+    private Long productId;
+
+    @Schema(description = "Variación de la cantidad en stock", example = "-3")
+    private Integer delta;
+
+    @Schema(description = "Origen del movimiento", example = "PURCHASE")
+    private MovementType type;
+
+    @Schema(description = "Momento en que se registró el movimiento", example = "2025-01-01T12:00:00Z")
+    private Instant createdAt;
+}
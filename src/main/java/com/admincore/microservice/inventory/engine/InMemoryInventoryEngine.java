@@ -0,0 +1,321 @@
+package com.admincore.microservice.inventory.engine;
+
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock counters held in memory, journaled, and persisted to {@code inventory} in the background.
+ * <p>
+ * Purchases take one stripe lock, check and apply the decrement and append the new value
+ * to the {@link StockJournal} before releasing it; nothing else happens on the request
+ * thread. A flusher periodically drains the dirty counters, writes them to the table in
+ * one batched transaction and then advances the journal checkpoint past every record
+ * that the batch covers.
+ * <p>
+ * On start the counters are loaded from the table and the journal tail after the last
+ * checkpoint is replayed on top, then flushed, so a crash loses no acknowledged purchase.
+ * The engine owns {@code inventory.quantity} while it runs; nothing else may write it.
+ */
+@Slf4j
+public class InMemoryInventoryEngine implements AutoCloseable {
+
+    /**
+     * Outcome of a decrement that did not apply because the product is unknown.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Outcome of a decrement that did not apply because too little stock is available.
+     */
+    public static final int INSUFFICIENT = -2;
+
+    private static final String FLUSH_SQL = "UPDATE inventory SET quantity = ? WHERE product_id = ?";
+
+    private final StockTable table;
+    private final StockJournal journal;
+    private final InventoryRepository inventoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration flushInterval;
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+
+    public InMemoryInventoryEngine(InventoryRepository inventoryRepository, JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate, Path journalDirectory,
+                                   int journalSegmentBytes, int stripes, Duration flushInterval) {
+        this.table = new StockTable(stripes);
+        this.journal = new StockJournal(journalDirectory, journalSegmentBytes);
+        this.inventoryRepository = inventoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushInterval = flushInterval;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the table, replays the journal tail and starts the flusher.
+     */
+    public void start() {
+        inventoryRepository.forEachInventory(inventory -> {
+            StockTable.Stripe stripe = table.stripeFor(inventory.getProductId());
+            stripe.lock();
+            try {
+                stripe.insert(inventory.getProductId(), inventory.getId(), inventory.getQuantity(), inventory.getReserved());
+            } finally {
+                stripe.unlock();
+            }
+        });
+        journal.recover((sequence, productId, quantity) -> {
+            StockTable.Stripe stripe = table.stripeFor(productId);
+            stripe.lock();
+            try {
+                int slot = stripe.find(productId);
+                if (slot >= 0) {
+                    stripe.setQuantity(slot, quantity);
+                }
+            } finally {
+                stripe.unlock();
+            }
+        });
+        flush();
+        long delay = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, delay, delay, TimeUnit.MILLISECONDS);
+        log.info("In-memory inventory engine started with {} products ({} stripes, flush every {})",
+                size(), table.stripeCount(), flushInterval);
+    }
+
+    /**
+     * Returns the stock of a product, or {@code null} if it is unknown.
+     */
+    public Stock get(long productId) {
+        StockTable.Stripe stripe = table.stripeFor(productId);
+        stripe.lock();
+        try {
+            int slot = stripe.find(productId);
+            return slot < 0 ? null : new Stock(stripe.id(slot), productId, stripe.quantity(slot), stripe.reserved(slot));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Sets the quantity of a product whose row already exists in {@code inventory}.
+     */
+    public Stock set(long productId, long id, int quantity) {
+        StockTable.Stripe stripe = table.stripeFor(productId);
+        stripe.lock();
+        try {
+            int slot = stripe.find(productId);
+            if (slot < 0) {
+                slot = stripe.insert(productId, id, quantity, 0);
+            }
+            stripe.setQuantity(slot, quantity);
+            journal.append(productId, quantity);
+            return new Stock(stripe.id(slot), productId, quantity, stripe.reserved(slot));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units if they are available. Returns the remaining quantity,
+     * {@link #NOT_FOUND} or {@link #INSUFFICIENT}.
+     */
+    public int decrement(long productId, int quantity) {
+        StockTable.Stripe stripe = table.stripeFor(productId);
+        stripe.lock();
+        try {
+            int slot = stripe.find(productId);
+            if (slot < 0) {
+                return NOT_FOUND;
+            }
+            if (stripe.available(slot) < quantity) {
+                return INSUFFICIENT;
+            }
+            int remaining = stripe.quantity(slot) - quantity;
+            stripe.setQuantity(slot, remaining);
+            journal.append(productId, remaining);
+            return remaining;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Applies all decrements or none. Returns {@code -1} if they applied, otherwise the
+     * index of the first line that could not be applied.
+     */
+    public int decrementAll(long[] productIds, int[] quantities) {
+        int[] stripeIndexes = new int[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            stripeIndexes[i] = table.stripeIndex(productIds[i]);
+        }
+        int[] lockOrder = Arrays.stream(stripeIndexes).distinct().sorted().toArray();
+        for (int index : lockOrder) {
+            table.stripe(index).lock();
+        }
+        try {
+            int[] slots = new int[productIds.length];
+            int[] before = new int[productIds.length];
+            for (int i = 0; i < productIds.length; i++) {
+                StockTable.Stripe stripe = table.stripe(stripeIndexes[i]);
+                int slot = stripe.find(productIds[i]);
+                if (slot < 0 || stripe.available(slot) < quantities[i]) {
+                    for (int j = i - 1; j >= 0; j--) {
+                        table.stripe(stripeIndexes[j]).setQuantity(slots[j], before[j]);
+                    }
+                    return i;
+                }
+                slots[i] = slot;
+                before[i] = stripe.quantity(slot);
+                stripe.setQuantity(slot, before[i] - quantities[i]);
+            }
+            for (int i = 0; i < productIds.length; i++) {
+                journal.append(productIds[i], before[i] - quantities[i]);
+            }
+            return -1;
+        } finally {
+            for (int i = lockOrder.length - 1; i >= 0; i--) {
+                table.stripe(lockOrder[i]).unlock();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < table.stripeCount(); i++) {
+            StockTable.Stripe stripe = table.stripe(i);
+            stripe.lock();
+            try {
+                size += stripe.size();
+            } finally {
+                stripe.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Records appended to the journal and not yet persisted to the table.
+     */
+    public long pendingRecords() {
+        return journal.nextSequence() - journal.checkpoint();
+    }
+
+    /**
+     * Writes every changed counter to the table and checkpoints the journal.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            long covered = journal.nextSequence();
+            LongIntBuffer changes = new LongIntBuffer();
+            for (int i = 0; i < table.stripeCount(); i++) {
+                StockTable.Stripe stripe = table.stripe(i);
+                stripe.lock();
+                try {
+                    stripe.drainDirty(changes::add);
+                } finally {
+                    stripe.unlock();
+                }
+            }
+            journal.force();
+            if (changes.size > 0) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, changes));
+                } catch (RuntimeException e) {
+                    redirty(changes);
+                    throw e;
+                }
+            }
+            journal.checkpoint(covered);
+            if (changes.size > 0) {
+                log.debug("Flushed {} stock counters up to journal sequence {}", changes.size, covered);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Final stock flush failed, the journal will be replayed on start: {}", e.getMessage());
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Stock flush failed, retrying in {}: {}", flushInterval, e.getMessage());
+        }
+    }
+
+    private void redirty(LongIntBuffer changes) {
+        for (int i = 0; i < changes.size; i++) {
+            StockTable.Stripe stripe = table.stripeFor(changes.productIds[i]);
+            stripe.lock();
+            try {
+                int slot = stripe.find(changes.productIds[i]);
+                if (slot >= 0) {
+                    stripe.markDirty(slot);
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    public record Stock(long id, long productId, int quantity, int reserved) {
+    }
+
+    private static final class LongIntBuffer implements BatchPreparedStatementSetter {
+
+        private long[] productIds = new long[64];
+        private int[] quantities = new int[64];
+        private int size;
+
+        void add(long productId, int quantity) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            productIds[size] = productId;
+            quantities[size] = quantity;
+            size++;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setInt(1, quantities[i]);
+            ps.setLong(2, productIds[i]);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+}
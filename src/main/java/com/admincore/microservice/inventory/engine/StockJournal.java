@@ -0,0 +1,200 @@
+package com.admincore.microservice.inventory.engine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Sequenced write-ahead log of stock values on memory-mapped segment files.
+ * <p>
+ * Every record is the absolute quantity of one product after a mutation, stamped with a
+ * global sequence number that also fixes its position: appending is one atomic increment
+ * plus four absolute stores into the mapped segment, with no lock and no system call.
+ * Records carry a checksum, so slots left empty or torn by a crash are skipped on replay.
+ * <p>
+ * The checkpoint file holds the first sequence not yet persisted to the database;
+ * segments entirely below it are deleted. Mapped pages survive a process crash; a
+ * machine crash loses what was appended since the last {@link #force()}.
+ */
+@Slf4j
+final class StockJournal implements AutoCloseable {
+
+    static final int RECORD_SIZE = 24;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile long checkpoint;
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long sequence, long productId, int quantity);
+    }
+
+    StockJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.recordsPerSegment = Math.max(1, segmentBytes / RECORD_SIZE);
+    }
+
+    /**
+     * Replays every intact record at or after the checkpoint in sequence order and
+     * positions the log after the last one. Must be called once before appending.
+     */
+    long recover(RecordConsumer consumer) {
+        try {
+            Files.createDirectories(directory);
+            Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+            checkpoint = Files.exists(checkpointFile) ? ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong() : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open stock journal in " + directory, e);
+        }
+
+        long next = checkpoint;
+        long replayed = 0;
+        for (long index : segmentIndexes()) {
+            if ((index + 1) * recordsPerSegment <= checkpoint) {
+                delete(index);
+                continue;
+            }
+            MappedByteBuffer segment = segment(index);
+            for (int slot = 0; slot < recordsPerSegment; slot++) {
+                long sequence = index * recordsPerSegment + slot;
+                int offset = slot * RECORD_SIZE;
+                long productId = segment.getLong(offset + 8);
+                int quantity = segment.getInt(offset + 16);
+                if (segment.getLong(offset) != sequence || segment.getInt(offset + 20) != checksum(sequence, productId, quantity)) {
+                    continue;
+                }
+                if (sequence >= checkpoint) {
+                    consumer.accept(sequence, productId, quantity);
+                    next = Math.max(next, sequence + 1);
+                    replayed++;
+                }
+            }
+        }
+        nextSequence.set(next);
+        log.info("Recovered stock journal in {}: checkpoint {}, {} records replayed", directory, checkpoint, replayed);
+        return replayed;
+    }
+
+    /**
+     * Records the quantity of a product after a mutation. Callers hold the product's stripe
+     * lock, so records of one product are sequenced in the order they were applied.
+     */
+    long append(long productId, int quantity) {
+        long sequence = nextSequence.getAndIncrement();
+        MappedByteBuffer segment = segment(sequence / recordsPerSegment);
+        int offset = (int) (sequence % recordsPerSegment) * RECORD_SIZE;
+        segment.putLong(offset + 8, productId);
+        segment.putInt(offset + 16, quantity);
+        segment.putInt(offset + 20, checksum(sequence, productId, quantity));
+        segment.putLong(offset, sequence);
+        return sequence;
+    }
+
+    long nextSequence() {
+        return nextSequence.get();
+    }
+
+    long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Marks every record below {@code sequence} as persisted and drops the segments that
+     * no longer hold any record at or after it.
+     */
+    void checkpoint(long sequence) {
+        if (sequence <= checkpoint) {
+            return;
+        }
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.write(temp, ByteBuffer.allocate(Long.BYTES).putLong(sequence).array());
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write stock journal checkpoint", e);
+        }
+        checkpoint = sequence;
+        for (Long index : new ArrayList<>(segments.keySet())) {
+            if ((index + 1) * recordsPerSegment <= sequence) {
+                delete(index);
+            }
+        }
+    }
+
+    void force() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    @Override
+    public void close() {
+        force();
+        segments.clear();
+    }
+
+    private MappedByteBuffer segment(long index) {
+        MappedByteBuffer segment = segments.get(index);
+        return segment != null ? segment : segments.computeIfAbsent(index, this::map);
+    }
+
+    private MappedByteBuffer map(long index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map stock journal segment " + index, e);
+        }
+    }
+
+    private void delete(long index) {
+        segments.remove(index);
+        try {
+            Files.deleteIfExists(segmentPath(index));
+        } catch (IOException e) {
+            log.warn("Cannot delete stock journal segment {}: {}", index, e.getMessage());
+        }
+    }
+
+    private List<Long> segmentIndexes() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list stock journal segments in " + directory, e);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    static int checksum(long sequence, long productId, int quantity) {
+        long h = sequence * 0x9e3779b97f4a7c15L ^ productId * 0xc2b2ae3d27d4eb4fL ^ (quantity + 0x165667b19e3779f9L);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h | 1;
+    }
+}
@@ -0,0 +1,194 @@
+package com.admincore.microservice.inventory.engine;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Product id to stock counters, striped by product id.
+ * <p>
+ * Each stripe is an open-addressing table over primitive arrays guarded by its own lock,
+ * so purchases of products in different stripes never contend and nothing is boxed.
+ * Every change marks its slot dirty; the flusher drains the dirty slots of a stripe in
+ * one pass without scanning the whole table.
+ */
+final class StockTable {
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    StockTable(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    int stripeIndex(long productId) {
+        return stripes.length == 1 ? 0 : hash(productId) >>> stripeShift;
+    }
+
+    Stripe stripe(int index) {
+        return stripes[index];
+    }
+
+    Stripe stripeFor(long productId) {
+        return stripes[stripeIndex(productId)];
+    }
+
+    static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    @FunctionalInterface
+    interface DirtyConsumer {
+        void accept(long productId, int quantity);
+    }
+
+    /**
+     * One lock-guarded table. All methods other than {@link #lock()} and
+     * {@link #unlock()} must be called with the lock held.
+     */
+    static final class Stripe {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int[] quantities = new int[INITIAL_CAPACITY];
+        private int[] reserved = new int[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private boolean[] dirty = new boolean[INITIAL_CAPACITY];
+        private int[] dirtySlots = new int[INITIAL_CAPACITY];
+        private int dirtyCount;
+        private int mask = INITIAL_CAPACITY - 1;
+        private int size;
+
+        void lock() {
+            lock.lock();
+        }
+
+        void unlock() {
+            lock.unlock();
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Returns the slot holding {@code productId}, or {@code -1}.
+         */
+        int find(long productId) {
+            for (int slot = hash(productId) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == productId) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds a product that is not in the table yet and returns its slot.
+         */
+        int insert(long productId, long id, int quantity, int reservedUnits) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int slot = hash(productId) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = productId;
+            ids[slot] = id;
+            quantities[slot] = quantity;
+            reserved[slot] = reservedUnits;
+            size++;
+            return slot;
+        }
+
+        long id(int slot) {
+            return ids[slot];
+        }
+
+        int quantity(int slot) {
+            return quantities[slot];
+        }
+
+        int reserved(int slot) {
+            return reserved[slot];
+        }
+
+        int available(int slot) {
+            return quantities[slot] - reserved[slot];
+        }
+
+        void setQuantity(int slot, int quantity) {
+            quantities[slot] = quantity;
+            markDirty(slot);
+        }
+
+        void markDirty(int slot) {
+            if (!dirty[slot]) {
+                dirty[slot] = true;
+                dirtySlots[dirtyCount++] = slot;
+            }
+        }
+
+        void drainDirty(DirtyConsumer consumer) {
+            for (int i = 0; i < dirtyCount; i++) {
+                int slot = dirtySlots[i];
+                dirty[slot] = false;
+                consumer.accept(keys[slot], quantities[slot]);
+            }
+            dirtyCount = 0;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldIds = ids;
+            int[] oldQuantities = quantities;
+            int[] oldReserved = reserved;
+            boolean[] oldUsed = used;
+            boolean[] oldDirty = dirty;
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            ids = new long[capacity];
+            quantities = new int[capacity];
+            reserved = new int[capacity];
+            used = new boolean[capacity];
+            dirty = new boolean[capacity];
+            dirtySlots = new int[capacity];
+            dirtyCount = 0;
+            mask = capacity - 1;
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (!oldUsed[old]) {
+                    continue;
+                }
+                int slot = hash(oldKeys[old]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[old];
+                ids[slot] = oldIds[old];
+                quantities[slot] = oldQuantities[old];
+                reserved[slot] = oldReserved[old];
+                if (oldDirty[old]) {
+                    markDirty(slot);
+                }
+            }
+        }
+    }
+}
@@ -33,6 +33,38 @@ public class GlobalExceptionHandler {
                 .body(new JsonApiResponse<>(List.of(error)));
     }
 
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<JsonApiResponse<Object>> handleReservationNotFound(ReservationNotFoundException ex) {
+        log.warn("Reservation not found: {}", ex.getMessage());
+        Map<String, Object> error = createErrorMap("404", "Reservation Not Found", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new JsonApiResponse<>(List.of(error)));
+    }
+
+    @ExceptionHandler(ReservationStateException.class)
+    public ResponseEntity<JsonApiResponse<Object>> handleReservationState(ReservationStateException ex) {
+        log.warn("Reservation conflict: {}", ex.getMessage());
+        Map<String, Object> error = createErrorMap("409", "Reservation Conflict", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new JsonApiResponse<>(List.of(error)));
+    }
+
+    @ExceptionHandler(InventoryBusyException.class)
+    public ResponseEntity<JsonApiResponse<Object>> handleBusy(InventoryBusyException ex) {
+        log.warn("Inventory busy: {}", ex.getMessage());
+        Map<String, Object> error = createErrorMap("503", "Inventory Busy", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new JsonApiResponse<>(List.of(error)));
+    }
+
+    @ExceptionHandler(IdempotencyException.class)
+    public ResponseEntity<JsonApiResponse<Object>> handleIdempotency(IdempotencyException ex) {
+        log.warn("Idempotency error: {}", ex.getMessage());
+        Map<String, Object> error = createErrorMap(String.valueOf(ex.getStatus().value()), "Idempotency Error", ex.getMessage());
+        return ResponseEntity.status(ex.getStatus())
+                .body(new JsonApiResponse<>(List.of(error)));
+    }
+
     @ExceptionHandler(ProductServiceException.class)
     public ResponseEntity<JsonApiResponse<Object>> handleProductServiceError(ProductServiceException ex) {
         log.error("Product service error: {}", ex.getMessage());
@@ -0,0 +1,16 @@
+package com.admincore.microservice.inventory.exception;
+
+import org.springframework.http.HttpStatusCode;
+
+public class IdempotencyException extends RuntimeException {
+    private final HttpStatusCode status;
+
+    public IdempotencyException(String message, HttpStatusCode status) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatusCode getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,7 @@
+package com.admincore.microservice.inventory.exception;
+
+public class InventoryBusyException extends RuntimeException {
+    public InventoryBusyException(String message) {
+        super(message);
+    }
+}
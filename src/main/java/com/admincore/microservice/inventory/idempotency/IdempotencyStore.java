@@ -0,0 +1,258 @@
+package com.admincore.microservice.inventory.idempotency;
+
+import com.admincore.microservice.inventory.exception.IdempotencyException;
+import com.admincore.microservice.inventory.model.IdempotencyRecord;
+import com.admincore.microservice.inventory.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a mutation at most once per {@code Idempotency-Key}.
+ * <p>
+ * Keys are scoped by operation and by the caller's API key, so two clients that happen
+ * to pick the same key never see each other's results. They are held in a bounded,
+ * TTL-evicted cache together with
+ * the request they came with and a future for the result. The first request with a key
+ * runs the mutation; concurrent duplicates wait on its future and later ones replay the
+ * stored result, so a retried purchase never decrements twice. A key reused with a
+ * different request is rejected with {@code 422}. Failed executions are forgotten so the
+ * client can retry them.
+ * <p>
+ * With a {@link IdempotencyRecordRepository}, successful results are also written to the
+ * database and looked up on a cache miss, so keys survive a restart for the same TTL.
+ * The record is written after the mutation commits; a crash in between forgets the key.
+ */
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final int MAX_KEY_LENGTH = 255;
+    private static final String UNKNOWN_CALLER = "none";
+
+    private final Cache<String, Execution> executions;
+    private final IdempotencyRecordRepository records;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long waitTimeoutNanos;
+    private volatile Instant nextPurge = Instant.MIN;
+
+    public IdempotencyStore(Cache<String, Execution> executions, IdempotencyRecordRepository records,
+                            ObjectMapper objectMapper, Duration ttl, Duration waitTimeout) {
+        this.executions = executions;
+        this.records = records;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    /**
+     * Runs {@code mutation} unless {@code caller} already used {@code key} for {@code scope},
+     * in which case the first execution's result is returned. Without a key the mutation
+     * just runs.
+     *
+     * @param caller fingerprint of the caller's API key, or {@code null} if unknown
+     */
+    public <T> T execute(String scope, String caller, String key, Object request, TypeReference<T> responseType,
+                         Supplier<T> mutation) {
+        if (key == null) {
+            return mutation.get();
+        }
+        String id = id(scope, caller, key);
+        Execution mine = new Execution(request);
+        Execution first = executions.asMap().putIfAbsent(id, mine);
+        if (first != null) {
+            checkSameRequest(first.request, request, key);
+            if (log.isDebugEnabled()) {
+                log.debug("Replaying idempotent {} for key {}", scope, key);
+            }
+            return await(first, key);
+        }
+
+        try {
+            T result = records == null ? null : replayStored(id, request, key, responseType);
+            if (result == null) {
+                result = mutation.get();
+                store(id, request, result);
+            }
+            mine.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            executions.asMap().remove(id, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking {@link #execute} for reactive endpoints. Duplicates wait on the first
+     * execution without holding a thread, and the persisted-record lookup and write run on
+     * {@code jdbcScheduler}. Once started, an execution finishes and settles its key even if
+     * the caller cancels, so a retry replays it instead of running the mutation again.
+     */
+    public <T> Mono<T> executeReactive(String scope, String caller, String key, Object request,
+                                       TypeReference<T> responseType, Supplier<Mono<T>> mutation,
+                                       Scheduler jdbcScheduler) {
+        if (key == null) {
+            return Mono.defer(mutation);
+        }
+        return Mono.defer(() -> {
+            String id = id(scope, caller, key);
+            Execution mine = new Execution(request);
+            Execution first = executions.asMap().putIfAbsent(id, mine);
+            if (first != null) {
+                checkSameRequest(first.request, request, key);
+                if (log.isDebugEnabled()) {
+                    log.debug("Replaying idempotent {} for key {}", scope, key);
+                }
+                return awaitReactive(first, key);
+            }
+
+            Mono<T> stored = records == null ? Mono.empty()
+                    : Mono.fromCallable(() -> replayStored(id, request, key, responseType)).subscribeOn(jdbcScheduler);
+            CompletableFuture<T> result = stored
+                    .switchIfEmpty(Mono.defer(mutation)
+                            .publishOn(jdbcScheduler)
+                            .doOnNext(value -> store(id, request, value)))
+                    .toFuture();
+            result.whenComplete((value, error) -> {
+                if (error == null) {
+                    mine.result.complete(value);
+                } else {
+                    executions.asMap().remove(id, mine);
+                    mine.result.completeExceptionally(error);
+                }
+            });
+            return Mono.fromFuture(result, true);
+        });
+    }
+
+    public long size() {
+        return executions.estimatedSize();
+    }
+
+    private static String id(String scope, String caller, String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters",
+                    HttpStatus.BAD_REQUEST);
+        }
+        return scope + ":" + (caller == null ? UNKNOWN_CALLER : caller) + ":" + key;
+    }
+
+    private <T> T replayStored(String id, Object request, String key, TypeReference<T> responseType) {
+        IdempotencyRecord stored = records.findById(id)
+                .filter(record -> record.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+                .orElse(null);
+        if (stored == null) {
+            return null;
+        }
+        if (!stored.getRequestHash().equals(hash(request))) {
+            throw reused(key);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Replaying stored idempotent result for key {}", key);
+        }
+        try {
+            return objectMapper.readValue(stored.getResponseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency record " + id, e);
+        }
+    }
+
+    private void store(String id, Object request, Object result) {
+        if (records == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            records.save(new IdempotencyRecord(id, hash(request), objectMapper.writeValueAsString(result), now));
+            if (now.isAfter(nextPurge)) {
+                nextPurge = now.plus(ttl);
+                records.deleteOlderThan(now.minus(ttl));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not persist idempotency record {}: {}", id, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T await(Execution first, String key) {
+        try {
+            return (T) first.result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inProgress(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException("Interrupted while waiting for " + HEADER + " " + key,
+                    HttpStatus.CONFLICT);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> awaitReactive(Execution first, String key) {
+        return Mono.fromFuture(first.result, true)
+                .map(result -> (T) result)
+                .timeout(Duration.ofNanos(waitTimeoutNanos), Mono.error(() -> inProgress(key)));
+    }
+
+    private void checkSameRequest(Object original, Object request, String key) {
+        if (!Objects.equals(original, request)) {
+            throw reused(key);
+        }
+    }
+
+    private IdempotencyException inProgress(String key) {
+        return new IdempotencyException("A request with " + HEADER + " " + key + " is still in progress",
+                HttpStatus.CONFLICT);
+    }
+
+    private IdempotencyException reused(String key) {
+        return new IdempotencyException(HEADER + " " + key + " was already used with a different request",
+                HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    /**
+     * The first execution for a key: its request, and its result once it finishes.
+     */
+    public static final class Execution {
+
+        private final Object request;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Execution(Object request) {
+            this.request = request;
+        }
+    }
+}
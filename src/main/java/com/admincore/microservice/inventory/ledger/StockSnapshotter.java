@@ -0,0 +1,51 @@
+package com.admincore.microservice.inventory.ledger;
+
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds new stock movements into snapshots on a fixed delay, so rebuilding a
+ * product's stock never replays more than one interval of its movements.
+ */
+@Slf4j
+public class StockSnapshotter implements AutoCloseable {
+
+    private final StockLedgerService stockLedgerService;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler;
+
+    public StockSnapshotter(StockLedgerService stockLedgerService, Duration interval) {
+        this.stockLedgerService = stockLedgerService;
+        this.interval = interval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long delay = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotSafely, delay, delay, TimeUnit.MILLISECONDS);
+        log.info("Stock snapshotter started (interval {})", interval);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void snapshotSafely() {
+        try {
+            stockLedgerService.snapshot(Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Stock snapshot failed, retrying in {}: {}", interval, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.admincore.microservice.inventory.metrics;
+
+import com.admincore.microservice.inventory.exception.InsufficientInventoryException;
+import com.admincore.microservice.inventory.exception.InventoryNotFoundException;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and outcome meters for the inventory hot paths.
+ * <p>
+ * Each operation records its total time under {@code inventory.requests}, tagged with
+ * its outcome, and the part of it spent waiting on the product service or on the
+ * database under {@code inventory.request.phase}. Timers publish p50/p95/p99 and a
+ * percentile histogram. Every tag comes from a fixed set of values, never from a
+ * product id, and all meters are registered up front so recording does not look
+ * them up.
+ */
+@Component
+public class InventoryMetrics {
+
+    public enum Operation {
+        PURCHASE("purchase"),
+        UPSERT("upsert"),
+        LOOKUP("lookup");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS("success"),
+        INSUFFICIENT_STOCK("insufficient_stock"),
+        NOT_FOUND("not_found"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private enum Phase {
+        NONE(null),
+        PRODUCT_SERVICE("product_service"),
+        DATABASE("database");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Clock clock;
+    private final Timer[][] requests;
+    private final Timer[][] phases;
+    private final Counter[] insufficientStock;
+    private final Counter[] notFound;
+
+    public InventoryMetrics(MeterRegistry meterRegistry) {
+        this.clock = meterRegistry.config().clock();
+        Operation[] operations = Operation.values();
+        this.requests = new Timer[operations.length][Outcome.values().length];
+        this.phases = new Timer[operations.length][Phase.values().length];
+        this.insufficientStock = new Counter[operations.length];
+        this.notFound = new Counter[operations.length];
+        for (Operation operation : operations) {
+            for (Outcome outcome : Outcome.values()) {
+                requests[operation.ordinal()][outcome.ordinal()] = Timer.builder("inventory.requests")
+                        .description("Inventory operations, end to end")
+                        .tag("operation", operation.tag)
+                        .tag("outcome", outcome.tag)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+            for (Phase phase : Phase.values()) {
+                if (phase != Phase.NONE) {
+                    phases[operation.ordinal()][phase.ordinal()] = Timer.builder("inventory.request.phase")
+                            .description("Time an inventory operation spent on the product service or the database")
+                            .tag("operation", operation.tag)
+                            .tag("phase", phase.tag)
+                            .publishPercentiles(0.5, 0.95, 0.99)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry);
+                }
+            }
+            insufficientStock[operation.ordinal()] = Counter.builder("inventory.insufficient.stock")
+                    .description("Operations rejected because the available stock was too low")
+                    .tag("operation", operation.tag)
+                    .register(meterRegistry);
+            notFound[operation.ordinal()] = Counter.builder("inventory.not.found")
+                    .description("Operations on a product without an inventory row")
+                    .tag("operation", operation.tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Starts timing one operation. The returned sample must be finished with
+     * {@link Sample#success()} or {@link Sample#failure(RuntimeException)}.
+     */
+    public Sample start(Operation operation) {
+        return new Sample(operation, clock.monotonicTime());
+    }
+
+    /**
+     * Timing of one running operation. Not thread-safe; owned by the calling thread.
+     */
+    public final class Sample {
+
+        private final Operation operation;
+        private final long startNanos;
+        private Phase phase = Phase.NONE;
+        private long phaseStartNanos;
+
+        private Sample(Operation operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Marks the start of the product service lookup, ending the current phase.
+         */
+        public void productService() {
+            enter(Phase.PRODUCT_SERVICE);
+        }
+
+        /**
+         * Marks the start of the database work, ending the current phase.
+         */
+        public void database() {
+            enter(Phase.DATABASE);
+        }
+
+        public void success() {
+            stop(Outcome.SUCCESS);
+        }
+
+        public void failure(RuntimeException error) {
+            if (error instanceof InsufficientInventoryException) {
+                insufficientStock[operation.ordinal()].increment();
+                stop(Outcome.INSUFFICIENT_STOCK);
+            } else if (error instanceof InventoryNotFoundException) {
+                notFound[operation.ordinal()].increment();
+                stop(Outcome.NOT_FOUND);
+            } else {
+                stop(Outcome.ERROR);
+            }
+        }
+
+        private void enter(Phase next) {
+            long now = clock.monotonicTime();
+            recordPhase(now);
+            phase = next;
+            phaseStartNanos = now;
+        }
+
+        private void stop(Outcome outcome) {
+            long now = clock.monotonicTime();
+            recordPhase(now);
+            phase = Phase.NONE;
+            requests[operation.ordinal()][outcome.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void recordPhase(long now) {
+            if (phase != Phase.NONE) {
+                phases[operation.ordinal()][phase.ordinal()].record(now - phaseStartNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
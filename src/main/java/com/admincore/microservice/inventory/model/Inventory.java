@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "inventory")
+@Table(name = "inventory", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventory_product_id", columnNames = "product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,11 +19,28 @@ public class Inventory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "product_id", unique = true)
+    @Column(name = "product_id")
     @NotNull(message = "Product ID is required")
     private Long productId;
 
     @Column(name = "quantity")
     @PositiveOrZero(message = "Quantity must be zero or positive")
     private Integer quantity = 0;
-}
\ No newline at end of file
+
+    /**
+     * Units held by active reservations, kept in step with them so available-to-sell
+     * is {@code quantity - reserved} without reading the reservations.
+     */
+    @Column(name = "reserved", nullable = false)
+    @ColumnDefault("0")
+    @PositiveOrZero(message = "Reserved must be zero or positive")
+    private Integer reserved = 0;
+
+    public Inventory(Long id, Long productId, Integer quantity) {
+        this(id, productId, quantity, 0);
+    }
+
+    public int getAvailable() {
+        return Math.max(0, quantity - reserved);
+    }
+}
@@ -0,0 +1,7 @@
+package com.admincore.microservice.inventory.model;
+
+public enum MovementType {
+    STOCK_SET,
+    PURCHASE,
+    RESERVATION_CONFIRMED
+}
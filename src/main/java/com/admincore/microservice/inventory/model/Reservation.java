@@ -0,0 +1,47 @@
+package com.admincore.microservice.inventory.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Stock held for a checkout until it is confirmed, released or expires.
+ * <p>
+ * The {@code (status, expires_at)} index lets the expiry sweeper read the oldest
+ * active reservations in order without scanning the table.
+ */
+@Entity
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_reservation_status_expires_at", columnList = "status, expires_at"),
+        @Index(name = "idx_reservation_product_id", columnList = "product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private ReservationStatus status = ReservationStatus.ACTIVE;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
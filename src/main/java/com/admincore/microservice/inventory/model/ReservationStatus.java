@@ -0,0 +1,8 @@
+package com.admincore.microservice.inventory.model;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,40 @@
+package com.admincore.microservice.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One change to a product's {@code quantity}, appended in the same transaction as the
+ * change itself and never updated.
+ * <p>
+ * The {@code (product_id, created_at)} index serves history queries by product and time
+ * range; replaying the deltas after a {@link StockSnapshot} rebuilds current stock.
+ */
+@Entity
+@Table(name = "stock_movement", indexes = {
+        @Index(name = "idx_movement_product_created_at", columnList = "product_id, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "delta", nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 32)
+    private MovementType type;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
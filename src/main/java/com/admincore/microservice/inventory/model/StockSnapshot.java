@@ -0,0 +1,39 @@
+package com.admincore.microservice.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A product's {@code quantity} as of movement {@code lastMovementId}.
+ * <p>
+ * Snapshots are only written for products that moved since the previous one, so the
+ * latest snapshot per product plus the movements after it always gives current stock.
+ */
+@Entity
+@Table(name = "stock_snapshot", indexes = {
+        @Index(name = "idx_snapshot_product_movement", columnList = "product_id, last_movement_id"),
+        @Index(name = "idx_snapshot_movement", columnList = "last_movement_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,85 @@
+package com.admincore.microservice.inventory.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the requests in flight on one endpoint and adapts the cap to observed latency.
+ * <p>
+ * Each window, if more than 1% of the completed requests took longer than the latency
+ * threshold (that is, p99 is above it) the limit is cut by a quarter, down to
+ * {@code minLimit}; otherwise it grows by a tenth, up to {@code maxLimit}. Requests
+ * over the limit are turned away at once, so a saturated database sheds load instead
+ * of queueing it. All state is in atomics; whichever request closes a window adjusts
+ * the limit.
+ */
+public class ConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final long windowNanos;
+    private final int minSamples;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong slow = new AtomicLong();
+    private final AtomicLong windowStart;
+
+    public ConcurrencyLimiter(int minLimit, int maxLimit, Duration latencyThreshold, Duration window, int minSamples,
+                              LongSupplier clock) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.thresholdNanos = latencyThreshold.toNanos();
+        this.windowNanos = window.toNanos();
+        this.minSamples = Math.max(1, minSamples);
+        this.clock = clock;
+        this.limit = new AtomicInteger(this.maxLimit);
+        this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Admits a request if the endpoint is under its current limit. An admitted request
+     * must be followed by exactly one {@link #release(long)}.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit.get()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        completed.incrementAndGet();
+        if (latencyNanos > thresholdNanos) {
+            slow.incrementAndGet();
+        }
+        long now = clock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            adjust(completed.getAndSet(0), slow.getAndSet(0));
+        }
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust(long total, long slowRequests) {
+        int current = limit.get();
+        if (total >= minSamples && slowRequests * 100 > total) {
+            limit.set(Math.max(minLimit, current - Math.max(1, current / 4)));
+        } else if (current < maxLimit) {
+            limit.set(Math.min(maxLimit, current + Math.max(1, current / 10)));
+        }
+    }
+}
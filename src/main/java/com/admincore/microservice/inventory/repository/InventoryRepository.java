@@ -1,12 +1,44 @@
 package com.admincore.microservice.inventory.repository;
 
 import com.admincore.microservice.inventory.model.Inventory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     Optional<Inventory> findByProductId(Long productId);
-}
\ No newline at end of file
+
+    List<Inventory> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity " +
+            "WHERE i.productId = :productId AND i.quantity - i.reserved >= :quantity")
+    int decrementQuantity(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reserved = i.reserved + :quantity " +
+            "WHERE i.productId = :productId AND i.quantity - i.reserved >= :quantity")
+    int reserveQuantity(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reserved = i.reserved - :quantity " +
+            "WHERE i.productId = :productId AND i.reserved >= :quantity")
+    int releaseReserved(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, i.reserved = i.reserved - :quantity " +
+            "WHERE i.productId = :productId AND i.reserved >= :quantity AND i.quantity >= :quantity")
+    int commitReserved(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+}
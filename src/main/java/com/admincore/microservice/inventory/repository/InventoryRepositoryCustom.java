@@ -0,0 +1,22 @@
+package com.admincore.microservice.inventory.repository;
+
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.model.Inventory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface InventoryRepositoryCustom {
+    int[] decrementQuantities(List<PurchaseRequest> purchases);
+
+    void forEachInventory(Consumer<Inventory> action);
+
+    Map<Long, Integer> findQuantities(Collection<Long> productIds);
+
+    void upsertQuantities(List<InventoryRequest> rows);
+
+    Inventory upsertQuantity(Long productId, int quantity);
+}
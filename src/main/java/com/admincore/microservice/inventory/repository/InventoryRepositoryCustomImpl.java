@@ -0,0 +1,130 @@
+package com.admincore.microservice.inventory.repository;
+
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.model.Inventory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE inventory SET quantity = quantity - ? WHERE product_id = ? AND quantity - reserved >= ?";
+    private static final String STREAM_SQL =
+            "SELECT id, product_id, quantity, reserved FROM inventory ORDER BY id";
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * SQLite (and PostgreSQL) upsert; {@code reserved} keeps its value on conflict.
+     */
+    private static final String UPSERT_SQL =
+            "INSERT INTO inventory (product_id, quantity, reserved) VALUES (?, ?, 0) " +
+            "ON CONFLICT (product_id) DO UPDATE SET quantity = excluded.quantity";
+    /**
+     * H2 has no {@code ON CONFLICT}; the same upsert as a standard {@code MERGE}.
+     */
+    private static final String H2_UPSERT_SQL =
+            "MERGE INTO inventory t USING (SELECT CAST(? AS BIGINT) AS product_id, CAST(? AS INTEGER) AS quantity) s " +
+            "ON t.product_id = s.product_id " +
+            "WHEN MATCHED THEN UPDATE SET quantity = s.quantity " +
+            "WHEN NOT MATCHED THEN INSERT (product_id, quantity, reserved) VALUES (s.product_id, s.quantity, 0)";
+
+    private static final String UPSERT_RETURNING_SQL = UPSERT_SQL + " RETURNING id, product_id, quantity, reserved";
+    private static final String H2_UPSERT_RETURNING_SQL =
+            "SELECT id, product_id, quantity, reserved FROM FINAL TABLE (" + H2_UPSERT_SQL + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean h2;
+
+    @Override
+    public int[] decrementQuantities(List<PurchaseRequest> purchases) {
+        return jdbcTemplate.batchUpdate(DECREMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PurchaseRequest purchase = purchases.get(i);
+                ps.setInt(1, purchase.getQuantity());
+                ps.setLong(2, purchase.getProductId());
+                ps.setInt(3, purchase.getQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return purchases.size();
+            }
+        });
+    }
+
+    @Override
+    public void forEachInventory(Consumer<Inventory> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STREAM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new Inventory(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4))));
+    }
+
+    @Override
+    public Map<Long, Integer> findQuantities(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        String sql = "SELECT product_id, quantity FROM inventory WHERE product_id IN ("
+                + String.join(", ", Collections.nCopies(productIds.size(), "?")) + ")";
+        Map<Long, Integer> quantities = new HashMap<>(productIds.size() * 2);
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> quantities.put(rs.getLong(1), rs.getInt(2)), productIds.toArray());
+        return quantities;
+    }
+
+    @Override
+    public void upsertQuantities(List<InventoryRequest> rows) {
+        jdbcTemplate.batchUpdate(isH2() ? H2_UPSERT_SQL : UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                InventoryRequest row = rows.get(i);
+                ps.setLong(1, row.getProductId());
+                ps.setInt(2, row.getQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Creates or updates a product's row in one statement and returns it. Concurrent
+     * creates of the same product resolve through the {@code product_id} unique key
+     * instead of failing on it.
+     */
+    @Override
+    public Inventory upsertQuantity(Long productId, int quantity) {
+        return jdbcTemplate.queryForObject(isH2() ? H2_UPSERT_RETURNING_SQL : UPSERT_RETURNING_SQL,
+                (rs, rowNum) -> new Inventory(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4)),
+                productId, quantity);
+    }
+
+    private boolean isH2() {
+        Boolean value = h2;
+        if (value == null) {
+            value = "H2".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+            h2 = value;
+        }
+        return value;
+    }
+}
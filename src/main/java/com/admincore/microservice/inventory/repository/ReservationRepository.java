@@ -0,0 +1,30 @@
+package com.admincore.microservice.inventory.repository;
+
+import com.admincore.microservice.inventory.model.Reservation;
+import com.admincore.microservice.inventory.model.ReservationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    List<Reservation> findByStatusAndExpiresAtLessThanEqualOrderByExpiresAtAsc(ReservationStatus status, Instant expiresAt, Limit limit);
+
+    /**
+     * Moves a reservation out of {@code ACTIVE}; only one of confirm, release and the
+     * expiry sweeper can win, so its reserved units are settled exactly once.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = :status " +
+            "WHERE r.id = :id AND r.status = com.admincore.microservice.inventory.model.ReservationStatus.ACTIVE")
+    int closeActive(@Param("id") Long id, @Param("status") ReservationStatus status);
+}
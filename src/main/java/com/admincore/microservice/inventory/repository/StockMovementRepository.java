@@ -0,0 +1,26 @@
+package com.admincore.microservice.inventory.repository;
+
+import com.admincore.microservice.inventory.model.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementRepositoryCustom {
+
+    @Query("SELECT m FROM StockMovement m WHERE m.productId = :productId " +
+            "AND m.createdAt >= :from AND m.createdAt < :to AND m.id > :afterId ORDER BY m.id")
+    List<StockMovement> findHistory(@Param("productId") Long productId, @Param("from") Instant from,
+                                    @Param("to") Instant to, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM StockMovement m WHERE m.productId = :productId AND m.id > :afterId")
+    long sumDeltasAfter(@Param("productId") Long productId, @Param("afterId") Long afterId);
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM StockMovement m")
+    long lastId();
+}
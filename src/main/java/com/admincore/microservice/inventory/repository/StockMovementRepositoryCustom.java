@@ -0,0 +1,16 @@
+package com.admincore.microservice.inventory.repository;
+
+import com.admincore.microservice.inventory.model.StockMovement;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockMovementRepositoryCustom {
+    void appendAll(List<StockMovement> movements);
+
+    int appendQuantitySet(long productId, int quantity, Instant createdAt);
+
+    int snapshotRange(long afterId, long upToId, Instant createdAt);
+
+    int appendOpeningBalances(Instant createdAt);
+}
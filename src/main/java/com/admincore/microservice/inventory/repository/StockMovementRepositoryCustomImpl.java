@@ -0,0 +1,93 @@
+package com.admincore.microservice.inventory.repository;
+
+import com.admincore.microservice.inventory.model.StockMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockMovementRepositoryCustomImpl implements StockMovementRepositoryCustom {
+
+    private static final String APPEND_SQL =
+            "INSERT INTO stock_movement (product_id, delta, type, created_at) VALUES (?, ?, ?, ?)";
+
+    /**
+     * Records the change a quantity upsert is about to make, computing the delta from
+     * the stored row in the same statement; nothing is written if the quantity is unchanged.
+     */
+    private static final String APPEND_SET_SQL =
+            "INSERT INTO stock_movement (product_id, delta, type, created_at) " +
+            "SELECT p.product_id, p.quantity - COALESCE(i.quantity, 0), 'STOCK_SET', p.created_at " +
+            "FROM (SELECT CAST(? AS BIGINT) AS product_id, CAST(? AS INTEGER) AS quantity, CAST(? AS TIMESTAMP) AS created_at) p " +
+            "LEFT JOIN inventory i ON i.product_id = p.product_id " +
+            "WHERE p.quantity - COALESCE(i.quantity, 0) <> 0";
+
+    /**
+     * Adds one snapshot per product that moved in {@code (afterId, upToId]}: its previous
+     * snapshot (or zero) plus the sum of those deltas. The range is read by primary key
+     * and each previous snapshot through {@code (product_id, last_movement_id)}.
+     */
+    private static final String SNAPSHOT_SQL =
+            "INSERT INTO stock_snapshot (product_id, quantity, last_movement_id, created_at) " +
+            "SELECT d.product_id, " +
+            "COALESCE((SELECT s.quantity FROM stock_snapshot s WHERE s.product_id = d.product_id " +
+            "AND s.last_movement_id = (SELECT MAX(p.last_movement_id) FROM stock_snapshot p WHERE p.product_id = d.product_id)), 0) " +
+            "+ d.delta, d.last_id, CAST(? AS TIMESTAMP) " +
+            "FROM (SELECT product_id, SUM(delta) AS delta, MAX(id) AS last_id FROM stock_movement " +
+            "WHERE id > ? AND id <= ? GROUP BY product_id) d";
+
+    /**
+     * Gives every non-empty inventory row without movements an opening {@code STOCK_SET}
+     * for its whole quantity; each row is checked through {@code (product_id, created_at)}.
+     */
+    private static final String APPEND_OPENING_SQL =
+            "INSERT INTO stock_movement (product_id, delta, type, created_at) " +
+            "SELECT i.product_id, i.quantity, 'STOCK_SET', CAST(? AS TIMESTAMP) FROM inventory i " +
+            "WHERE i.quantity <> 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM stock_movement m WHERE m.product_id = i.product_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(APPEND_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockMovement movement = movements.get(i);
+                ps.setLong(1, movement.getProductId());
+                ps.setInt(2, movement.getDelta());
+                ps.setString(3, movement.getType().name());
+                ps.setTimestamp(4, Timestamp.from(movement.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return movements.size();
+            }
+        });
+    }
+
+    @Override
+    public int appendQuantitySet(long productId, int quantity, Instant createdAt) {
+        return jdbcTemplate.update(APPEND_SET_SQL, productId, quantity, Timestamp.from(createdAt));
+    }
+
+    @Override
+    public int appendOpeningBalances(Instant createdAt) {
+        return jdbcTemplate.update(APPEND_OPENING_SQL, Timestamp.from(createdAt));
+    }
+
+    @Override
+    public int snapshotRange(long afterId, long upToId, Instant createdAt) {
+        return jdbcTemplate.update(SNAPSHOT_SQL, Timestamp.from(createdAt), afterId, upToId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.admincore.microservice.inventory.repository;
+
+import com.admincore.microservice.inventory.model.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    Optional<StockSnapshot> findFirstByProductIdOrderByLastMovementIdDesc(Long productId);
+
+    /**
+     * Highest movement already folded into a snapshot; the next snapshot starts after it.
+     */
+    @Query("SELECT COALESCE(MAX(s.lastMovementId), 0) FROM StockSnapshot s")
+    long lastCoveredMovementId();
+}
@@ -0,0 +1,69 @@
+package com.admincore.microservice.inventory.reservation;
+
+import com.admincore.microservice.inventory.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires overdue reservations on a fixed delay.
+ * <p>
+ * Each pass reads the oldest overdue {@code ACTIVE} reservations through the
+ * {@code (status, expires_at)} index in batches of {@code batchSize}, one transaction
+ * per batch, and stops at the first batch that comes back short.
+ */
+@Slf4j
+public class ReservationSweeper implements AutoCloseable {
+
+    private final ReservationService reservationService;
+    private final Duration interval;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+
+    public ReservationSweeper(ReservationService reservationService, Duration interval, int batchSize) {
+        this.reservationService = reservationService;
+        this.interval = interval;
+        this.batchSize = Math.max(1, batchSize);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long delay = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::sweepSafely, delay, delay, TimeUnit.MILLISECONDS);
+        log.info("Reservation sweeper started (interval {}, batch {})", interval, batchSize);
+    }
+
+    /**
+     * Expires every reservation due at {@code now}; returns how many were handled.
+     */
+    public int sweep(Instant now) {
+        int total = 0;
+        int expired;
+        do {
+            expired = reservationService.expireDue(now, batchSize);
+            total += expired;
+        } while (expired == batchSize);
+        return total;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep(Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Reservation sweep failed, retrying in {}: {}", interval, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.admincore.microservice.inventory.service;
+
+import com.admincore.microservice.inventory.dto.InventoryImportEvent;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface InventoryImportService {
+
+    enum Format {
+        CSV,
+        NDJSON
+    }
+
+    InventoryImportEvent importStock(InputStream body, Format format, Consumer<InventoryImportEvent> listener);
+}
@@ -1,15 +1,28 @@
 package com.admincore.microservice.inventory.service;
 
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.dto.InventoryPage;
 import com.admincore.microservice.inventory.dto.InventoryRequest;
 import com.admincore.microservice.inventory.dto.InventoryResponse;
 import com.admincore.microservice.inventory.dto.PurchaseRequest;
 import com.admincore.microservice.inventory.dto.PurchaseResponse;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface InventoryService {
     InventoryResponse createOrUpdateInventory(InventoryRequest request);
+    InventoryResponse createOrUpdateInventory(InventoryRequest request, ProductInfo product);
+    CompletableFuture<InventoryResponse> createOrUpdateInventoryAsync(InventoryRequest request, ProductInfo product);
     InventoryResponse getInventoryByProductId(Long productId);
-    List<InventoryResponse> getAllInventories();
+    InventoryPage getInventoryPage(Long afterId, int size);
+    void streamInventories(Consumer<InventoryResponse> action);
     PurchaseResponse purchase(PurchaseRequest request);
+    PurchaseResponse purchase(PurchaseRequest request, ProductInfo product);
+    CompletableFuture<PurchaseResponse> purchaseAsync(PurchaseRequest request, ProductInfo product);
+    List<PurchaseResponse> purchaseBatch(List<PurchaseRequest> requests);
+    List<PurchaseResponse> purchaseBatch(List<PurchaseRequest> requests, Map<Long, ProductInfo> products);
+    CompletableFuture<List<PurchaseResponse>> purchaseBatchAsync(List<PurchaseRequest> requests, Map<Long, ProductInfo> products);
 }
\ No newline at end of file
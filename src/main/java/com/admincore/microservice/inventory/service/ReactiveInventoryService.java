@@ -0,0 +1,18 @@
+package com.admincore.microservice.inventory.service;
+
+import com.admincore.microservice.inventory.dto.InventoryPage;
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.dto.InventoryResponse;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.dto.PurchaseResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveInventoryService {
+    Mono<InventoryResponse> createOrUpdateInventory(InventoryRequest request);
+    Mono<InventoryResponse> getInventoryByProductId(Long productId);
+    Mono<InventoryPage> getInventoryPage(Long afterId, int size);
+    Mono<PurchaseResponse> purchase(PurchaseRequest request);
+    Mono<List<PurchaseResponse>> purchaseBatch(List<PurchaseRequest> requests);
+}
@@ -0,0 +1,13 @@
+package com.admincore.microservice.inventory.service;
+
+import com.admincore.microservice.inventory.dto.ReservationRequest;
+import com.admincore.microservice.inventory.dto.ReservationResponse;
+
+import java.time.Instant;
+
+public interface ReservationService {
+    ReservationResponse reserve(ReservationRequest request);
+    ReservationResponse confirm(Long reservationId);
+    ReservationResponse release(Long reservationId);
+    int expireDue(Instant now, int limit);
+}
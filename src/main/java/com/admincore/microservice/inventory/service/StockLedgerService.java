@@ -0,0 +1,17 @@
+package com.admincore.microservice.inventory.service;
+
+import com.admincore.microservice.inventory.dto.StockBalanceResponse;
+import com.admincore.microservice.inventory.dto.StockMovementPage;
+import com.admincore.microservice.inventory.model.StockMovement;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockLedgerService {
+    void record(List<StockMovement> movements);
+    void recordQuantitySet(Long productId, int quantity);
+    StockMovementPage getMovements(Long productId, Instant from, Instant to, Long afterId, int size);
+    StockBalanceResponse rebuild(Long productId);
+    int snapshot(Instant now);
+    int backfillOpeningBalances(Instant now);
+}
@@ -0,0 +1,225 @@
+package com.admincore.microservice.inventory.service.impl;
+
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.InventoryPage;
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.dto.InventoryResponse;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.dto.PurchaseResponse;
+import com.admincore.microservice.inventory.engine.InMemoryInventoryEngine;
+import com.admincore.microservice.inventory.exception.InsufficientInventoryException;
+import com.admincore.microservice.inventory.exception.InventoryNotFoundException;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@link InventoryService} backed by the {@link InMemoryInventoryEngine}.
+ * <p>
+ * Stock reads and purchases never touch the database; the engine journals them and
+ * persists the counters in the background. Only creating a product's row and listing
+ * inventories use the repository, with quantities taken from the engine.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryInventoryServiceImpl implements InventoryService {
+
+    private final InMemoryInventoryEngine engine;
+    private final InventoryRepository inventoryRepository;
+    private final ProductServiceClient productServiceClient;
+
+    @Override
+    public InventoryResponse createOrUpdateInventory(InventoryRequest request) {
+        return createOrUpdateInventory(request, productServiceClient.getProductInfo(request.getProductId()));
+    }
+
+    @Override
+    public InventoryResponse createOrUpdateInventory(InventoryRequest request, ProductInfo product) {
+        if (log.isDebugEnabled()) {
+            log.debug("Creating or updating inventory for product ID: {}", request.getProductId());
+        }
+
+        if (!product.exists()) {
+            throw new IllegalArgumentException("Product with ID " + request.getProductId() + " does not exist in the product service");
+        }
+
+        InMemoryInventoryEngine.Stock existing = engine.get(request.getProductId());
+        long id = existing != null ? existing.id() : insertRow(request);
+        return toResponse(engine.set(request.getProductId(), id, request.getQuantity()));
+    }
+
+    @Override
+    public CompletableFuture<InventoryResponse> createOrUpdateInventoryAsync(InventoryRequest request, ProductInfo product) {
+        return completed(() -> createOrUpdateInventory(request, product));
+    }
+
+    @Override
+    public InventoryResponse getInventoryByProductId(Long productId) {
+        InMemoryInventoryEngine.Stock stock = engine.get(productId);
+        if (stock == null) {
+            throw new InventoryNotFoundException("Inventory not found for product ID: " + productId);
+        }
+        return toResponse(stock);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryPage getInventoryPage(Long afterId, int size) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching inventory page after ID: {} with size: {}", afterId, size);
+        }
+        List<Inventory> rows = inventoryRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size + 1));
+        List<InventoryResponse> items = rows.stream()
+                .limit(size)
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        Long nextCursor = rows.size() > size ? items.get(items.size() - 1).getId() : null;
+        return new InventoryPage(items, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInventories(Consumer<InventoryResponse> action) {
+        if (log.isDebugEnabled()) {
+            log.debug("Streaming all inventories");
+        }
+        inventoryRepository.forEachInventory(inventory -> action.accept(toResponse(inventory)));
+    }
+
+    @Override
+    public PurchaseResponse purchase(PurchaseRequest request) {
+        return purchase(request, productServiceClient.getProductInfo(request.getProductId()));
+    }
+
+    @Override
+    public PurchaseResponse purchase(PurchaseRequest request, ProductInfo product) {
+        if (!product.exists()) {
+            throw new IllegalArgumentException("Product with ID " + request.getProductId() + " does not exist");
+        }
+
+        int remaining = engine.decrement(request.getProductId(), request.getQuantity());
+        if (remaining < 0) {
+            throw purchaseRejected(request.getProductId(), request.getQuantity());
+        }
+        return toPurchaseResponse(request, product);
+    }
+
+    @Override
+    public CompletableFuture<PurchaseResponse> purchaseAsync(PurchaseRequest request, ProductInfo product) {
+        return completed(() -> purchase(request, product));
+    }
+
+    @Override
+    public List<PurchaseResponse> purchaseBatch(List<PurchaseRequest> requests) {
+        Map<Long, ProductInfo> products = productServiceClient.getProductInfos(
+                requests.stream().map(PurchaseRequest::getProductId).collect(Collectors.toList()));
+        return purchaseBatch(requests, products);
+    }
+
+    @Override
+    public List<PurchaseResponse> purchaseBatch(List<PurchaseRequest> requests, Map<Long, ProductInfo> products) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing batch purchase with {} lines", requests.size());
+        }
+
+        long[] productIds = new long[requests.size()];
+        int[] quantities = new int[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            PurchaseRequest request = requests.get(i);
+            ProductInfo product = products.get(request.getProductId());
+            if (product == null || !product.exists()) {
+                throw new IllegalArgumentException("Product with ID " + request.getProductId() + " does not exist");
+            }
+            productIds[i] = request.getProductId();
+            quantities[i] = request.getQuantity();
+        }
+
+        int rejected = engine.decrementAll(productIds, quantities);
+        if (rejected >= 0) {
+            throw purchaseRejected(productIds[rejected], quantities[rejected]);
+        }
+        return requests.stream()
+                .map(request -> toPurchaseResponse(request, products.get(request.getProductId())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CompletableFuture<List<PurchaseResponse>> purchaseBatchAsync(List<PurchaseRequest> requests, Map<Long, ProductInfo> products) {
+        return completed(() -> purchaseBatch(requests, products));
+    }
+
+    private long insertRow(InventoryRequest request) {
+        Inventory created = inventoryRepository.upsertQuantity(request.getProductId(), request.getQuantity());
+        if (log.isDebugEnabled()) {
+            log.debug("Created new inventory for product ID: {}", request.getProductId());
+        }
+        return created.getId();
+    }
+
+    private RuntimeException purchaseRejected(long productId, int requested) {
+        InMemoryInventoryEngine.Stock stock = engine.get(productId);
+        if (stock == null) {
+            return new InventoryNotFoundException("Inventory not found for product ID: " + productId);
+        }
+        return new InsufficientInventoryException("Insufficient inventory for product ID: " + productId +
+                ". Available: " + Math.max(0, stock.quantity() - stock.reserved()) + ", Requested: " + requested);
+    }
+
+    private static <T> CompletableFuture<T> completed(Supplier<T> mutation) {
+        try {
+            return CompletableFuture.completedFuture(mutation.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private PurchaseResponse toPurchaseResponse(PurchaseRequest request, ProductInfo product) {
+        String productName = product.displayName();
+        PurchaseResponse response = new PurchaseResponse();
+        response.setProductId(request.getProductId());
+        response.setProductName(productName);
+        response.setPurchasedQuantity(request.getQuantity());
+        response.setMessage("Purchase successful. " + request.getQuantity() + " units of '" + productName + "' purchased.");
+        return response;
+    }
+
+    private InventoryResponse toResponse(InMemoryInventoryEngine.Stock stock) {
+        InventoryResponse response = new InventoryResponse();
+        response.setId(stock.id());
+        response.setProductId(stock.productId());
+        response.setQuantity(stock.quantity());
+        response.setReserved(stock.reserved());
+        response.setAvailable(Math.max(0, stock.quantity() - stock.reserved()));
+        return response;
+    }
+
+    private InventoryResponse toResponse(Inventory inventory) {
+        InMemoryInventoryEngine.Stock stock = engine.get(inventory.getProductId());
+        if (stock != null) {
+            return toResponse(stock);
+        }
+        InventoryResponse response = new InventoryResponse();
+        response.setId(inventory.getId());
+        response.setProductId(inventory.getProductId());
+        response.setQuantity(inventory.getQuantity());
+        response.setReserved(inventory.getReserved());
+        response.setAvailable(inventory.getAvailable());
+        return response;
+    }
+}
@@ -0,0 +1,296 @@
+package com.admincore.microservice.inventory.service.impl;
+
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.InventoryImportEvent;
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.exception.InventoryBusyException;
+import com.admincore.microservice.inventory.model.MovementType;
+import com.admincore.microservice.inventory.model.StockMovement;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.service.InventoryImportService;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import com.admincore.microservice.inventory.write.InventoryWriteQueue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static com.admincore.microservice.inventory.service.impl.StockCacheWrites.writeThrough;
+
+/**
+ * Applies a stream of quantity updates in fixed-size batches.
+ * <p>
+ * The body is read line by line, so only one batch is held in memory. Each batch
+ * validates its distinct product ids with one product-service lookup and is upserted
+ * with one JDBC batch in its own transaction (through the write queue when it is
+ * enabled), together with its ledger movements. Bad rows are reported and skipped;
+ * a failed batch is reported row by row and the import goes on with the next one.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+public class InventoryImportServiceImpl implements InventoryImportService {
+
+    /**
+     * Bound on the batch size, keeping the quantity lookup under SQLite's 999 bound parameters.
+     */
+    private static final int MAX_BATCH_SIZE = 900;
+
+    private final InventoryRepository inventoryRepository;
+    private final ProductServiceClient productServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final StockCache stockCache;
+    private final StockLedgerService stockLedger;
+    private final ObjectProvider<InventoryWriteQueue> writeQueue;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public InventoryImportServiceImpl(InventoryRepository inventoryRepository,
+                                      ProductServiceClient productServiceClient,
+                                      TransactionTemplate transactionTemplate,
+                                      StockCache stockCache,
+                                      StockLedgerService stockLedger,
+                                      ObjectProvider<InventoryWriteQueue> writeQueue,
+                                      ObjectMapper objectMapper,
+                                      @Value("${inventory.import.batch-size:500}") int batchSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.productServiceClient = productServiceClient;
+        this.transactionTemplate = transactionTemplate;
+        this.stockCache = stockCache;
+        this.stockLedger = stockLedger;
+        this.writeQueue = writeQueue;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+    }
+
+    @Override
+    public InventoryImportEvent importStock(InputStream body, Format format, Consumer<InventoryImportEvent> listener) {
+        log.info("Starting {} stock import in batches of {}", format, batchSize);
+        Progress progress = new Progress(listener);
+        List<InventoryRequest> rows = new ArrayList<>(batchSize);
+        List<Long> lines = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            boolean first = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (first && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                line = line.strip();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (first && format == Format.CSV && isHeader(line)) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                progress.processed++;
+                InventoryRequest row;
+                try {
+                    row = format == Format.CSV ? parseCsv(line) : parseNdjson(line);
+                } catch (IllegalArgumentException e) {
+                    progress.reject(lineNumber, null, e.getMessage());
+                    continue;
+                }
+                rows.add(row);
+                lines.add(lineNumber);
+                if (rows.size() == batchSize) {
+                    applyBatch(rows, lines, progress);
+                    rows.clear();
+                    lines.clear();
+                }
+            }
+            if (!rows.isEmpty()) {
+                applyBatch(rows, lines, progress);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            return progress.finish(InventoryImportEvent.Type.ABORTED, "Could not read the import body: " + e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Stock import aborted after {} rows: {}", progress.processed, e.getMessage());
+            return progress.finish(InventoryImportEvent.Type.ABORTED, e.getMessage());
+        }
+        log.info("Finished stock import: {} rows, {} imported, {} failed", progress.processed, progress.imported, progress.failed);
+        return progress.finish(InventoryImportEvent.Type.COMPLETED, null);
+    }
+
+    private void applyBatch(List<InventoryRequest> rows, List<Long> lines, Progress progress) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        rows.forEach(row -> productIds.add(row.getProductId()));
+        Map<Long, ProductInfo> products = productServiceClient.getProductInfos(productIds);
+
+        List<InventoryRequest> valid = new ArrayList<>(rows.size());
+        List<Long> validLines = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            InventoryRequest row = rows.get(i);
+            ProductInfo product = products.get(row.getProductId());
+            if (product == null || !product.exists()) {
+                progress.reject(lines.get(i), row.getProductId(), "Product with ID " + row.getProductId() + " does not exist");
+            } else {
+                valid.add(row);
+                validLines.add(lines.get(i));
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            try {
+                upsert(valid);
+                progress.imported += valid.size();
+            } catch (RuntimeException e) {
+                log.warn("Stock import batch of {} rows failed: {}", valid.size(), e.getMessage());
+                for (int i = 0; i < valid.size(); i++) {
+                    progress.reject(validLines.get(i), valid.get(i).getProductId(), e.getMessage());
+                }
+            }
+        }
+        progress.report();
+    }
+
+    private void upsert(List<InventoryRequest> rows) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        rows.forEach(row -> productIds.add(row.getProductId()));
+        List<StockCache.Write> writes = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            writes.add(stockCache.beginWrite(productId));
+        }
+        mutate(() -> writeThrough(writes, () -> {
+            Map<Long, Integer> quantities = new HashMap<>(inventoryRepository.findQuantities(productIds));
+            inventoryRepository.upsertQuantities(rows);
+            Instant now = Instant.now();
+            List<StockMovement> movements = new ArrayList<>(rows.size());
+            for (InventoryRequest row : rows) {
+                Integer previous = quantities.put(row.getProductId(), row.getQuantity());
+                int delta = row.getQuantity() - (previous == null ? 0 : previous);
+                if (delta != 0) {
+                    movements.add(new StockMovement(null, row.getProductId(), delta, MovementType.STOCK_SET, now));
+                }
+            }
+            stockLedger.record(movements);
+            return null;
+        }));
+    }
+
+    private void mutate(Runnable mutation) {
+        InventoryWriteQueue queue = writeQueue.getIfAvailable();
+        if (queue == null) {
+            transactionTemplate.executeWithoutResult(status -> mutation.run());
+            return;
+        }
+        try {
+            queue.submit(() -> {
+                mutation.run();
+                return null;
+            }).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new InventoryBusyException("Timed out waiting for inventory write to commit");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isHeader(String line) {
+        char c = line.charAt(0);
+        return !Character.isDigit(c) && c != '-' && c != '+';
+    }
+
+    private static InventoryRequest parseCsv(String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0 || line.indexOf(',', comma + 1) >= 0) {
+            throw new IllegalArgumentException("Expected productId,quantity");
+        }
+        long productId = parseNumber(line.substring(0, comma), "productId");
+        long quantity = parseNumber(line.substring(comma + 1), "quantity");
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must be zero or positive");
+        }
+        if (quantity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid quantity: " + quantity);
+        }
+        return new InventoryRequest(productId, (int) quantity);
+    }
+
+    private InventoryRequest parseNdjson(String line) {
+        try {
+            return validate(objectMapper.readValue(line, InventoryRequest.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static long parseNumber(String value, String field) {
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value.strip());
+        }
+    }
+
+    private static InventoryRequest validate(InventoryRequest row) {
+        if (row.getProductId() == null) {
+            throw new IllegalArgumentException("Product ID is required");
+        }
+        if (row.getQuantity() == null) {
+            throw new IllegalArgumentException("Quantity is required");
+        }
+        if (row.getQuantity() < 0) {
+            throw new IllegalArgumentException("Quantity must be zero or positive");
+        }
+        return row;
+    }
+
+    private static final class Progress {
+
+        private final Consumer<InventoryImportEvent> listener;
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private Progress(Consumer<InventoryImportEvent> listener) {
+            this.listener = listener;
+        }
+
+        void reject(long line, Long productId, String message) {
+            failed++;
+            listener.accept(InventoryImportEvent.rowError(line, productId, message));
+        }
+
+        void report() {
+            listener.accept(InventoryImportEvent.counts(InventoryImportEvent.Type.PROGRESS, null, processed, imported, failed));
+        }
+
+        InventoryImportEvent finish(InventoryImportEvent.Type type, String message) {
+            InventoryImportEvent event = InventoryImportEvent.counts(type, message, processed, imported, failed);
+            listener.accept(event);
+            return event;
+        }
+    }
+}
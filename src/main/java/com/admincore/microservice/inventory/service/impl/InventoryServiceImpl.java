@@ -1,114 +1,340 @@
 package com.admincore.microservice.inventory.service.impl;
 
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
 import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.InventoryPage;
 import com.admincore.microservice.inventory.dto.InventoryRequest;
 import com.admincore.microservice.inventory.dto.InventoryResponse;
 import com.admincore.microservice.inventory.dto.PurchaseRequest;
 import com.admincore.microservice.inventory.dto.PurchaseResponse;
 import com.admincore.microservice.inventory.exception.InsufficientInventoryException;
+import com.admincore.microservice.inventory.exception.InventoryBusyException;
 import com.admincore.microservice.inventory.exception.InventoryNotFoundException;
+import com.admincore.microservice.inventory.metrics.InventoryMetrics;
+import com.admincore.microservice.inventory.metrics.InventoryMetrics.Operation;
 import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.model.MovementType;
+import com.admincore.microservice.inventory.model.StockMovement;
 import com.admincore.microservice.inventory.repository.InventoryRepository;
 import com.admincore.microservice.inventory.service.InventoryService;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import com.admincore.microservice.inventory.write.InventoryWriteQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.admincore.microservice.inventory.service.impl.StockCacheWrites.writeThrough;
+
 @Service
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final ProductServiceClient productServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final StockCache stockCache;
+    private final ObjectProvider<InventoryWriteQueue> writeQueue;
+    private final StockLedgerService stockLedger;
+    private final InventoryMetrics metrics;
 
     @Override
-    @Transactional
     public InventoryResponse createOrUpdateInventory(InventoryRequest request) {
-        log.info("Creating or updating inventory for product ID: {}", request.getProductId());
+        InventoryMetrics.Sample sample = metrics.start(Operation.UPSERT);
+        try {
+            sample.productService();
+            ProductInfo product = productServiceClient.getProductInfo(request.getProductId());
+            sample.database();
+            InventoryResponse response = await(createOrUpdateInventoryAsync(request, product));
+            sample.success();
+            return response;
+        } catch (RuntimeException e) {
+            sample.failure(e);
+            throw e;
+        }
+    }
 
-        if (!productServiceClient.isProductAvailable(request.getProductId())) {
+    @Override
+    public CompletableFuture<InventoryResponse> createOrUpdateInventoryAsync(InventoryRequest request, ProductInfo product) {
+        return mutate(() -> applyCreateOrUpdate(request, product));
+    }
+
+    @Override
+    @Transactional
+    public InventoryResponse createOrUpdateInventory(InventoryRequest request, ProductInfo product) {
+        return applyCreateOrUpdate(request, product);
+    }
+
+    private InventoryResponse applyCreateOrUpdate(InventoryRequest request, ProductInfo product) {
+        if (log.isDebugEnabled()) {
+            log.debug("Creating or updating inventory for product ID: {}", request.getProductId());
+        }
+
+        if (!product.exists()) {
             throw new IllegalArgumentException("Product with ID " + request.getProductId() + " does not exist in the product service");
         }
 
-        return inventoryRepository.findByProductId(request.getProductId())
-                .map(existingInventory -> {
-                    existingInventory.setQuantity(request.getQuantity());
-                    Inventory savedInventory = inventoryRepository.save(existingInventory);
-                    log.info("Updated inventory for product ID: {}", request.getProductId());
-                    return toResponse(savedInventory);
-                })
-                .orElseGet(() -> {
-                    Inventory newInventory = new Inventory();
-                    newInventory.setProductId(request.getProductId());
-                    newInventory.setQuantity(request.getQuantity());
-                    Inventory savedInventory = inventoryRepository.save(newInventory);
-                    log.info("Created new inventory for product ID: {}", request.getProductId());
-                    return toResponse(savedInventory);
-                });
+        StockCache.Write write = stockCache.beginWrite(request.getProductId());
+        return writeThrough(List.of(write), () -> {
+            stockLedger.recordQuantitySet(request.getProductId(), request.getQuantity());
+            Inventory savedInventory = inventoryRepository.upsertQuantity(request.getProductId(), request.getQuantity());
+            if (log.isDebugEnabled()) {
+                log.debug("Upserted inventory for product ID: {}", request.getProductId());
+            }
+            write.put(savedInventory.getId(), savedInventory.getQuantity(), savedInventory.getReserved());
+            return toResponse(savedInventory);
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
     public InventoryResponse getInventoryByProductId(Long productId) {
-        log.info("Fetching inventory for product ID: {}", productId);
-        return inventoryRepository.findByProductId(productId)
-                .map(this::toResponse)
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching inventory for product ID: {}", productId);
+        }
+        InventoryMetrics.Sample sample = metrics.start(Operation.LOOKUP);
+        try {
+            StockCache.Stock cached = stockCache.get(productId);
+            if (cached != null) {
+                sample.success();
+                return toResponse(cached);
+            }
+            sample.database();
+            long token = stockCache.loadToken(productId);
+            Inventory inventory = inventoryRepository.findByProductId(productId)
+                    .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
+            stockCache.putIfUnchanged(productId, inventory.getId(), inventory.getQuantity(), inventory.getReserved(), token);
+            sample.success();
+            return toResponse(inventory);
+        } catch (RuntimeException e) {
+            sample.failure(e);
+            throw e;
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<InventoryResponse> getAllInventories() {
-        log.info("Fetching all inventories");
-        return inventoryRepository.findAll().stream()
-                .map(this::toResponse)
+    public InventoryPage getInventoryPage(Long afterId, int size) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching inventory page after ID: {} with size: {}", afterId, size);
+        }
+        List<Inventory> rows = inventoryRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size + 1));
+        List<InventoryResponse> items = rows.stream()
+                .limit(size)
+                .map(InventoryServiceImpl::toResponse)
                 .collect(Collectors.toList());
+        Long nextCursor = rows.size() > size ? items.get(items.size() - 1).getId() : null;
+        return new InventoryPage(items, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInventories(Consumer<InventoryResponse> action) {
+        if (log.isDebugEnabled()) {
+            log.debug("Streaming all inventories");
+        }
+        inventoryRepository.forEachInventory(inventory -> action.accept(toResponse(inventory)));
     }
 
     @Override
-    @Transactional
     public PurchaseResponse purchase(PurchaseRequest request) {
-        log.info("Processing purchase for product ID: {} with quantity: {}", request.getProductId(), request.getQuantity());
+        InventoryMetrics.Sample sample = metrics.start(Operation.PURCHASE);
+        try {
+            sample.productService();
+            ProductInfo product = productServiceClient.getProductInfo(request.getProductId());
+            sample.database();
+            PurchaseResponse response = await(purchaseAsync(request, product));
+            sample.success();
+            return response;
+        } catch (RuntimeException e) {
+            sample.failure(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<PurchaseResponse> purchaseAsync(PurchaseRequest request, ProductInfo product) {
+        return mutate(() -> applyPurchase(request, product));
+    }
+
+    @Override
+    @Transactional
+    public PurchaseResponse purchase(PurchaseRequest request, ProductInfo product) {
+        return applyPurchase(request, product);
+    }
 
-        if (!productServiceClient.isProductAvailable(request.getProductId())) {
+    private PurchaseResponse applyPurchase(PurchaseRequest request, ProductInfo product) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing purchase for product ID: {} with quantity: {}", request.getProductId(), request.getQuantity());
+        }
+
+        if (!product.exists()) {
             throw new IllegalArgumentException("Product with ID " + request.getProductId() + " does not exist");
         }
 
-        Inventory inventory = inventoryRepository.findByProductId(request.getProductId())
-                .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for product ID: " + request.getProductId()));
+        StockCache.Write write = stockCache.beginWrite(request.getProductId());
+        return writeThrough(List.of(write), () -> {
+            int updated = inventoryRepository.decrementQuantity(request.getProductId(), request.getQuantity());
+            if (updated == 0) {
+                throw purchaseRejected(request.getProductId(), request.getQuantity());
+            }
+            stockLedger.record(List.of(new StockMovement(null, request.getProductId(), -request.getQuantity(), MovementType.PURCHASE, Instant.now())));
+            write.adjust(-request.getQuantity());
+            if (log.isDebugEnabled()) {
+                log.debug("Decremented inventory for product ID: {} by {}", request.getProductId(), request.getQuantity());
+            }
+
+            return toPurchaseResponse(request, product);
+        });
+    }
+
+    @Override
+    public List<PurchaseResponse> purchaseBatch(List<PurchaseRequest> requests) {
+        Map<Long, ProductInfo> products = productServiceClient.getProductInfos(
+                requests.stream().map(PurchaseRequest::getProductId).collect(Collectors.toList()));
+        return await(purchaseBatchAsync(requests, products));
+    }
+
+    @Override
+    public CompletableFuture<List<PurchaseResponse>> purchaseBatchAsync(List<PurchaseRequest> requests, Map<Long, ProductInfo> products) {
+        return mutate(() -> applyPurchaseBatch(requests, products));
+    }
+
+    @Override
+    @Transactional
+    public List<PurchaseResponse> purchaseBatch(List<PurchaseRequest> requests, Map<Long, ProductInfo> products) {
+        return applyPurchaseBatch(requests, products);
+    }
+
+    private List<PurchaseResponse> applyPurchaseBatch(List<PurchaseRequest> requests, Map<Long, ProductInfo> products) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing batch purchase with {} lines", requests.size());
+        }
+
+        for (PurchaseRequest request : requests) {
+            ProductInfo product = products.get(request.getProductId());
+            if (product == null || !product.exists()) {
+                throw new IllegalArgumentException("Product with ID " + request.getProductId() + " does not exist");
+            }
+        }
+
+        List<StockCache.Write> writes = new ArrayList<>(requests.size());
+        for (PurchaseRequest request : requests) {
+            writes.add(stockCache.beginWrite(request.getProductId()));
+        }
+        return writeThrough(writes, () -> {
+            int[] updated = inventoryRepository.decrementQuantities(requests);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    PurchaseRequest rejected = requests.get(i);
+                    throw purchaseRejected(rejected.getProductId(), rejected.getQuantity());
+                }
+            }
+            Instant now = Instant.now();
+            List<StockMovement> movements = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                PurchaseRequest request = requests.get(i);
+                movements.add(new StockMovement(null, request.getProductId(), -request.getQuantity(), MovementType.PURCHASE, now));
+                writes.get(i).adjust(-request.getQuantity());
+            }
+            stockLedger.record(movements);
+            if (log.isDebugEnabled()) {
+                log.debug("Applied batch purchase of {} lines across {} products", requests.size(), products.size());
+            }
+
+            return requests.stream()
+                    .map(request -> toPurchaseResponse(request, products.get(request.getProductId())))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Hands a mutation to the single-writer queue when it is enabled; otherwise runs it
+     * in its own transaction on the calling thread.
+     */
+    private <T> CompletableFuture<T> mutate(Supplier<T> mutation) {
+        InventoryWriteQueue queue = writeQueue.getIfAvailable();
+        if (queue != null) {
+            return queue.submit(mutation);
+        }
+        try {
+            return CompletableFuture.completedFuture(transactionTemplate.execute(status -> mutation.get()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-        if (inventory.getQuantity() < request.getQuantity()) {
-            throw new InsufficientInventoryException(
-                    "Insufficient inventory for product ID: " + request.getProductId() +
-                            ". Available: " + inventory.getQuantity() + ", Requested: " + request.getQuantity()
-            );
+    /**
+     * Waits for a mutation. Futures from the write queue fail after its commit timeout,
+     * so this never blocks longer than that.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new InventoryBusyException("Timed out waiting for inventory write to commit");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
+    }
 
-        int newQuantity = inventory.getQuantity() - request.getQuantity();
-        inventory.setQuantity(newQuantity);
-        inventoryRepository.save(inventory);
-        log.info("Updated inventory for product ID: {}. New quantity: {}", request.getProductId(), newQuantity);
+    private RuntimeException purchaseRejected(Long productId, Integer requested) {
+        return inventoryRepository.findByProductId(productId)
+                .<RuntimeException>map(inventory -> new InsufficientInventoryException(
+                        "Insufficient inventory for product ID: " + productId +
+                                ". Available: " + inventory.getAvailable() + ", Requested: " + requested
+                ))
+                .orElseGet(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
+    }
 
-        String productName = productServiceClient.getProductName(request.getProductId());
+    private PurchaseResponse toPurchaseResponse(PurchaseRequest request, ProductInfo product) {
+        String productName = product.displayName();
         PurchaseResponse response = new PurchaseResponse();
         response.setProductId(request.getProductId());
         response.setProductName(productName);
         response.setPurchasedQuantity(request.getQuantity());
         response.setMessage("Purchase successful. " + request.getQuantity() + " units of '" + productName + "' purchased.");
+        return response;
+    }
 
+    static InventoryResponse toResponse(StockCache.Stock stock) {
+        InventoryResponse response = new InventoryResponse();
+        response.setId(stock.id());
+        response.setProductId(stock.productId());
+        response.setQuantity(stock.quantity());
+        response.setReserved(stock.reserved());
+        response.setAvailable(Math.max(0, stock.quantity() - stock.reserved()));
         return response;
     }
 
-    private InventoryResponse toResponse(Inventory inventory) {
+    static InventoryResponse toResponse(Inventory inventory) {
         InventoryResponse response = new InventoryResponse();
         response.setId(inventory.getId());
         response.setProductId(inventory.getProductId());
         response.setQuantity(inventory.getQuantity());
+        response.setReserved(inventory.getReserved());
+        response.setAvailable(inventory.getAvailable());
         return response;
     }
 }
\ No newline at end of file
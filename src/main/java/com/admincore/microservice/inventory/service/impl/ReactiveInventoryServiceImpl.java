@@ -0,0 +1,71 @@
+package com.admincore.microservice.inventory.service.impl;
+
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.InventoryPage;
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.dto.InventoryResponse;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.dto.PurchaseResponse;
+import com.admincore.microservice.inventory.service.InventoryService;
+import com.admincore.microservice.inventory.service.ReactiveInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveInventoryServiceImpl implements ReactiveInventoryService {
+
+    private final InventoryService inventoryService;
+    private final ProductServiceClient productServiceClient;
+    private final Scheduler jdbcScheduler;
+
+    @Override
+    public Mono<InventoryResponse> createOrUpdateInventory(InventoryRequest request) {
+        return productServiceClient.getProductInfoAsync(request.getProductId())
+                .flatMap(product -> onWriter(() -> inventoryService.createOrUpdateInventoryAsync(request, product)));
+    }
+
+    @Override
+    public Mono<InventoryResponse> getInventoryByProductId(Long productId) {
+        return onJdbc(() -> inventoryService.getInventoryByProductId(productId));
+    }
+
+    @Override
+    public Mono<InventoryPage> getInventoryPage(Long afterId, int size) {
+        return onJdbc(() -> inventoryService.getInventoryPage(afterId, size));
+    }
+
+    @Override
+    public Mono<PurchaseResponse> purchase(PurchaseRequest request) {
+        return productServiceClient.getProductInfoAsync(request.getProductId())
+                .flatMap(product -> onWriter(() -> inventoryService.purchaseAsync(request, product)));
+    }
+
+    @Override
+    public Mono<List<PurchaseResponse>> purchaseBatch(List<PurchaseRequest> requests) {
+        return productServiceClient.getProductInfosAsync(requests.stream().map(PurchaseRequest::getProductId).collect(Collectors.toList()))
+                .flatMap(products -> onWriter(() -> inventoryService.purchaseBatchAsync(requests, products)));
+    }
+
+    private <T> Mono<T> onJdbc(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * Mutations either run on the JDBC pool or, with the write queue enabled, are only
+     * enqueued there and complete when the writer commits them.
+     */
+    private <T> Mono<T> onWriter(Supplier<CompletableFuture<T>> work) {
+        return Mono.fromFuture(work).subscribeOn(jdbcScheduler);
+    }
+}
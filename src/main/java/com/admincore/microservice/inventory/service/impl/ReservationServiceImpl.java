@@ -0,0 +1,221 @@
+package com.admincore.microservice.inventory.service.impl;
+
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.dto.ReservationRequest;
+import com.admincore.microservice.inventory.dto.ReservationResponse;
+import com.admincore.microservice.inventory.exception.InsufficientInventoryException;
+import com.admincore.microservice.inventory.exception.InventoryNotFoundException;
+import com.admincore.microservice.inventory.exception.ReservationNotFoundException;
+import com.admincore.microservice.inventory.exception.ReservationStateException;
+import com.admincore.microservice.inventory.model.MovementType;
+import com.admincore.microservice.inventory.model.Reservation;
+import com.admincore.microservice.inventory.model.ReservationStatus;
+import com.admincore.microservice.inventory.model.StockMovement;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.repository.ReservationRepository;
+import com.admincore.microservice.inventory.service.ReservationService;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.admincore.microservice.inventory.service.impl.StockCacheWrites.writeThrough;
+
+/**
+ * Holds stock for a checkout without selling it.
+ * <p>
+ * Reserving moves units into {@code inventory.reserved} with a conditional update, so
+ * available-to-sell stays {@code quantity - reserved} and is read from the inventory row
+ * (or the stock cache) alone. Confirming turns the held units into a sale; releasing or
+ * expiring gives them back. Each reservation leaves {@code ACTIVE} through a conditional
+ * status update, so its units are settled exactly once even if a confirm races the sweeper.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private final ReservationRepository reservationRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockCache stockCache;
+    private final StockLedgerService stockLedger;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+
+    public ReservationServiceImpl(ReservationRepository reservationRepository,
+                                  InventoryRepository inventoryRepository,
+                                  StockCache stockCache,
+                                  StockLedgerService stockLedger,
+                                  @Value("${inventory.reservations.ttl:15m}") Duration defaultTtl,
+                                  @Value("${inventory.reservations.max-ttl:1h}") Duration maxTtl) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.stockCache = stockCache;
+        this.stockLedger = stockLedger;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse reserve(ReservationRequest request) {
+        if (log.isDebugEnabled()) {
+            log.debug("Reserving {} units of product ID: {}", request.getQuantity(), request.getProductId());
+        }
+
+        Duration ttl = ttlFor(request);
+        StockCache.Write write = stockCache.beginWrite(request.getProductId());
+        return writeThrough(List.of(write), () -> {
+            int updated = inventoryRepository.reserveQuantity(request.getProductId(), request.getQuantity());
+            if (updated == 0) {
+                throw reservationRejected(request.getProductId(), request.getQuantity());
+            }
+            Instant now = Instant.now();
+            Reservation reservation = new Reservation(null, request.getProductId(), request.getQuantity(),
+                    ReservationStatus.ACTIVE, now, now.plus(ttl));
+            Reservation saved = reservationRepository.save(reservation);
+            write.adjust(0, request.getQuantity());
+            if (log.isDebugEnabled()) {
+                log.debug("Created reservation {} for product ID: {}", saved.getId(), saved.getProductId());
+            }
+            return toResponse(saved);
+        });
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse confirm(Long reservationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Confirming reservation {}", reservationId);
+        }
+
+        Reservation reservation = findReservation(reservationId);
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            throw new ReservationStateException("Reservation " + reservationId + " is " + reservation.getStatus());
+        }
+        if (!reservation.getExpiresAt().isAfter(Instant.now())) {
+            throw new ReservationStateException("Reservation " + reservationId + " has expired");
+        }
+
+        StockCache.Write write = stockCache.beginWrite(reservation.getProductId());
+        return writeThrough(List.of(write), () -> {
+            close(reservation, ReservationStatus.CONFIRMED);
+            if (inventoryRepository.commitReserved(reservation.getProductId(), reservation.getQuantity()) == 0) {
+                throw new InsufficientInventoryException("Insufficient inventory for product ID: " + reservation.getProductId() +
+                        " to confirm reservation " + reservationId);
+            }
+            stockLedger.record(List.of(new StockMovement(null, reservation.getProductId(), -reservation.getQuantity(),
+                    MovementType.RESERVATION_CONFIRMED, Instant.now())));
+            write.adjust(-reservation.getQuantity(), -reservation.getQuantity());
+            return toResponse(reservation);
+        });
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse release(Long reservationId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Releasing reservation {}", reservationId);
+        }
+
+        Reservation reservation = findReservation(reservationId);
+        switch (reservation.getStatus()) {
+            case RELEASED, EXPIRED -> {
+                return toResponse(reservation);
+            }
+            case CONFIRMED -> throw new ReservationStateException("Reservation " + reservationId + " is CONFIRMED");
+            default -> {
+            }
+        }
+
+        StockCache.Write write = stockCache.beginWrite(reservation.getProductId());
+        return writeThrough(List.of(write), () -> {
+            close(reservation, ReservationStatus.RELEASED);
+            inventoryRepository.releaseReserved(reservation.getProductId(), reservation.getQuantity());
+            write.adjust(0, -reservation.getQuantity());
+            return toResponse(reservation);
+        });
+    }
+
+    @Override
+    @Transactional
+    public int expireDue(Instant now, int limit) {
+        List<Reservation> due = reservationRepository.findByStatusAndExpiresAtLessThanEqualOrderByExpiresAtAsc(
+                ReservationStatus.ACTIVE, now, Limit.of(limit));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Integer> releasedByProduct = new LinkedHashMap<>();
+        for (Reservation reservation : due) {
+            if (reservationRepository.closeActive(reservation.getId(), ReservationStatus.EXPIRED) == 1) {
+                releasedByProduct.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> releases = new ArrayList<>(releasedByProduct.entrySet());
+        List<StockCache.Write> writes = new ArrayList<>(releases.size());
+        for (Map.Entry<Long, Integer> release : releases) {
+            writes.add(stockCache.beginWrite(release.getKey()));
+        }
+        writeThrough(writes, () -> {
+            for (int i = 0; i < releases.size(); i++) {
+                Map.Entry<Long, Integer> release = releases.get(i);
+                inventoryRepository.releaseReserved(release.getKey(), release.getValue());
+                writes.get(i).adjust(0, -release.getValue());
+            }
+            return null;
+        });
+        log.info("Expired {} reservations across {} products", due.size(), releases.size());
+        return due.size();
+    }
+
+    private Duration ttlFor(ReservationRequest request) {
+        if (request.getTtlSeconds() == null) {
+            return defaultTtl;
+        }
+        Duration requested = Duration.ofSeconds(request.getTtlSeconds());
+        return requested.compareTo(maxTtl) > 0 ? maxTtl : requested;
+    }
+
+    private Reservation findReservation(Long reservationId) {
+        return reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException("Reservation not found: " + reservationId));
+    }
+
+    private void close(Reservation reservation, ReservationStatus status) {
+        if (reservationRepository.closeActive(reservation.getId(), status) == 0) {
+            throw new ReservationStateException("Reservation " + reservation.getId() + " is no longer active");
+        }
+        reservation.setStatus(status);
+    }
+
+    private RuntimeException reservationRejected(Long productId, Integer requested) {
+        return inventoryRepository.findByProductId(productId)
+                .<RuntimeException>map(inventory -> new InsufficientInventoryException(
+                        "Insufficient inventory for product ID: " + productId +
+                                ". Available: " + inventory.getAvailable() + ", Requested: " + requested
+                ))
+                .orElseGet(() -> new InventoryNotFoundException("Inventory not found for product ID: " + productId));
+    }
+
+    private ReservationResponse toResponse(Reservation reservation) {
+        ReservationResponse response = new ReservationResponse();
+        response.setId(reservation.getId());
+        response.setProductId(reservation.getProductId());
+        response.setQuantity(reservation.getQuantity());
+        response.setStatus(reservation.getStatus());
+        response.setExpiresAt(reservation.getExpiresAt());
+        return response;
+    }
+}
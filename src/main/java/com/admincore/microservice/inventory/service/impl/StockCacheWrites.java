@@ -0,0 +1,40 @@
+package com.admincore.microservice.inventory.service.impl;
+
+import com.admincore.microservice.inventory.cache.StockCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+final class StockCacheWrites {
+
+    private StockCacheWrites() {
+    }
+
+    /**
+     * Runs a stock mutation and settles its cache writes once the surrounding
+     * transaction completes, so the cache never shows uncommitted stock.
+     */
+    static <T> T writeThrough(List<StockCache.Write> writes, Supplier<T> mutation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    writes.forEach(write -> write.complete(status == STATUS_COMMITTED));
+                }
+            });
+            return mutation.get();
+        }
+        boolean applied = false;
+        try {
+            T result = mutation.get();
+            applied = true;
+            return result;
+        } finally {
+            for (StockCache.Write write : writes) {
+                write.complete(applied);
+            }
+        }
+    }
+}
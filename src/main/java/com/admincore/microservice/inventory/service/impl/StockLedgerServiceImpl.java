@@ -0,0 +1,135 @@
+package com.admincore.microservice.inventory.service.impl;
+
+import com.admincore.microservice.inventory.dto.StockBalanceResponse;
+import com.admincore.microservice.inventory.dto.StockMovementPage;
+import com.admincore.microservice.inventory.dto.StockMovementResponse;
+import com.admincore.microservice.inventory.model.StockMovement;
+import com.admincore.microservice.inventory.model.StockSnapshot;
+import com.admincore.microservice.inventory.repository.StockMovementRepository;
+import com.admincore.microservice.inventory.repository.StockSnapshotRepository;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only history of stock movements with incremental snapshots.
+ * <p>
+ * Movements are inserted in one JDBC batch inside the transaction that changed the
+ * stock, so the ledger and {@code inventory.quantity} commit or roll back together.
+ * A snapshot pass folds every movement after the previous pass into one new snapshot
+ * per product that moved; rebuilding a product then reads its latest snapshot and
+ * sums only the movements after it. Passes read the range by movement id, which relies
+ * on ids committing in order, as they do with SQLite's single writer.
+ * <p>
+ * Times are cut to the microseconds {@code created_at} stores, both when written and in
+ * range queries, so a bound equal to a stored time compares as it does in Java instead
+ * of depending on how the database rounds the extra digits.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+    private static final ChronoUnit PRECISION = ChronoUnit.MICROS;
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<StockMovement> movements) {
+        for (StockMovement movement : movements) {
+            movement.setCreatedAt(movement.getCreatedAt().truncatedTo(PRECISION));
+        }
+        stockMovementRepository.appendAll(movements);
+    }
+
+    /**
+     * Must run before the quantity is written, in the same transaction: the delta is
+     * taken from the row as it is stored at that point.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordQuantitySet(Long productId, int quantity) {
+        stockMovementRepository.appendQuantitySet(productId, quantity, Instant.now().truncatedTo(PRECISION));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockMovementPage getMovements(Long productId, Instant from, Instant to, Long afterId, int size) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching stock movements for product ID: {} from {} to {} after ID: {}", productId, from, to, afterId);
+        }
+        List<StockMovement> rows = stockMovementRepository.findHistory(productId,
+                from == null ? Instant.EPOCH : from.truncatedTo(PRECISION),
+                to == null ? END_OF_TIME : to.truncatedTo(PRECISION),
+                afterId == null ? 0L : afterId,
+                Limit.of(size + 1));
+        List<StockMovementResponse> items = rows.stream()
+                .limit(size)
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        Long nextCursor = rows.size() > size ? items.get(items.size() - 1).getId() : null;
+        return new StockMovementPage(items, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockBalanceResponse rebuild(Long productId) {
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository.findFirstByProductIdOrderByLastMovementIdDesc(productId);
+        int base = snapshot.map(StockSnapshot::getQuantity).orElse(0);
+        Long snapshotMovementId = snapshot.map(StockSnapshot::getLastMovementId).orElse(null);
+        long delta = stockMovementRepository.sumDeltasAfter(productId, snapshotMovementId == null ? 0L : snapshotMovementId);
+        return new StockBalanceResponse(productId, Math.toIntExact(base + delta), base, snapshotMovementId);
+    }
+
+    @Override
+    @Transactional
+    public int snapshot(Instant now) {
+        long covered = stockSnapshotRepository.lastCoveredMovementId();
+        long last = stockMovementRepository.lastId();
+        if (last <= covered) {
+            return 0;
+        }
+        int products = stockMovementRepository.snapshotRange(covered, last, now);
+        log.info("Snapshotted {} products covering stock movements {} to {}", products, covered + 1, last);
+        return products;
+    }
+
+    /**
+     * Inventory rows written before the ledger existed have no movements, so rebuilding
+     * them would start from zero; each gets one opening {@code STOCK_SET} for its quantity.
+     */
+    @Override
+    @Transactional
+    public int backfillOpeningBalances(Instant now) {
+        int products = stockMovementRepository.appendOpeningBalances(now.truncatedTo(PRECISION));
+        if (products > 0) {
+            log.info("Recorded opening stock movements for {} products", products);
+        }
+        return products;
+    }
+
+    private StockMovementResponse toResponse(StockMovement movement) {
+        StockMovementResponse response = new StockMovementResponse();
+        response.setId(movement.getId());
+        response.setProductId(movement.getProductId());
+        response.setDelta(movement.getDelta());
+        response.setType(movement.getType());
+        response.setCreatedAt(movement.getCreatedAt());
+        return response;
+    }
+}
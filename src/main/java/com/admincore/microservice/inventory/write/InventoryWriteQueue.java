@@ -0,0 +1,171 @@
+package com.admincore.microservice.inventory.write;
+
+import com.admincore.microservice.inventory.exception.InventoryBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serializes inventory mutations onto one writer thread that group-commits them.
+ * <p>
+ * SQLite admits a single writer, so concurrent write transactions only contend for the
+ * file lock. Here callers enqueue a mutation and get a future back; the writer drains up
+ * to {@code maxBatchSize} queued mutations and applies them in one transaction, each
+ * inside its own JDBC savepoint so a rejected mutation is undone without affecting the
+ * rest. Futures complete only after the batch commits. If the batch itself fails to
+ * commit, its mutations are retried one transaction at a time; anything else thrown
+ * while applying a batch fails that batch's futures and the writer moves on.
+ */
+@Slf4j
+public class InventoryWriteQueue implements AutoCloseable {
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcSavepoints savepoints;
+    private final BlockingQueue<Command<?>> queue;
+    private final int maxBatchSize;
+    private final long offerTimeoutNanos;
+    private final long commitTimeoutNanos;
+    private final Thread writer;
+    private volatile boolean running;
+
+    public InventoryWriteQueue(TransactionTemplate transactionTemplate, JdbcSavepoints savepoints,
+                               int capacity, int maxBatchSize, Duration offerTimeout, Duration commitTimeout) {
+        this.transactionTemplate = transactionTemplate;
+        this.savepoints = savepoints;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.commitTimeoutNanos = commitTimeout.toNanos();
+        this.writer = new Thread(this::run, "inventory-writer");
+        this.writer.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        writer.start();
+        log.info("Inventory write queue started (capacity {}, max batch {})", queue.remainingCapacity(), maxBatchSize);
+    }
+
+    /**
+     * Queues a mutation. It runs on the writer thread inside a shared transaction,
+     * and the returned future completes once that transaction has committed, or fails
+     * with a {@link java.util.concurrent.TimeoutException} if that takes longer than
+     * {@code commitTimeout}; the mutation may still commit after a timeout.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> mutation) {
+        Command<T> command = new Command<>(mutation);
+        if (!running) {
+            command.future.completeExceptionally(new InventoryBusyException("Inventory write queue is not running"));
+            return command.future;
+        }
+        try {
+            if (!queue.offer(command, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                command.future.completeExceptionally(new InventoryBusyException("Inventory write queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            command.future.completeExceptionally(new InventoryBusyException("Interrupted while queueing inventory write"));
+        }
+        return command.future.orTimeout(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Command<?>> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(command -> command.future.completeExceptionally(
+                new InventoryBusyException("Inventory write queue shut down")));
+    }
+
+    private void run() {
+        List<Command<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            try {
+                apply(batch);
+            } catch (Throwable e) {
+                log.error("Applying {} inventory writes failed", batch.size(), e);
+                batch.forEach(command -> command.future.completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    private void apply(List<Command<?>> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(command -> command.runInSavepoint(savepoints)));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} inventory writes failed, retrying them one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::applyAlone);
+            return;
+        }
+        batch.forEach(Command::publish);
+    }
+
+    private void applyAlone(Command<?> command) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> command.runInSavepoint(savepoints));
+            command.publish();
+        } catch (Throwable e) {
+            command.future.completeExceptionally(e);
+        }
+    }
+
+    private static final class Command<T> {
+
+        private final Supplier<T> mutation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException failure;
+
+        private Command(Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        void runInSavepoint(JdbcSavepoints savepoints) {
+            result = null;
+            failure = null;
+            Savepoint savepoint = savepoints.create();
+            try {
+                result = mutation.get();
+                savepoints.release(savepoint);
+            } catch (RuntimeException e) {
+                savepoints.rollbackTo(savepoint);
+                failure = e;
+            }
+        }
+
+        void publish() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
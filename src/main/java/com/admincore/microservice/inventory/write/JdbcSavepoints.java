@@ -0,0 +1,80 @@
+package com.admincore.microservice.inventory.write;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * JDBC savepoints on the connection of the current JPA transaction.
+ * <p>
+ * {@code JpaTransactionManager} cannot create savepoints through Hibernate, so the write
+ * queue sets them on the connection the transaction manager bound for its data source.
+ * Pending entity changes are flushed before a savepoint is released and the persistence
+ * context is cleared after rolling back to one, so nothing an undone mutation touched is
+ * written at commit.
+ */
+public class JdbcSavepoints {
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public JdbcSavepoints(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public Savepoint create() {
+        entityManager().flush();
+        try {
+            return connection().setSavepoint();
+        } catch (SQLException e) {
+            throw new CannotCreateTransactionException("Could not create JDBC savepoint", e);
+        }
+    }
+
+    public void release(Savepoint savepoint) {
+        entityManager().flush();
+        try {
+            connection().releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not release JDBC savepoint", e);
+        }
+    }
+
+    public void rollbackTo(Savepoint savepoint) {
+        EntityManager entityManager = entityManager();
+        try {
+            Connection connection = connection();
+            connection.rollback(savepoint);
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not roll back to JDBC savepoint", e);
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private Connection connection() {
+        if (!(TransactionSynchronizationManager.getResource(dataSource) instanceof ConnectionHolder holder)) {
+            throw new IllegalStateException("No JDBC connection bound to the current transaction");
+        }
+        return holder.getConnection();
+    }
+
+    private EntityManager entityManager() {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null) {
+            throw new IllegalStateException("No EntityManager bound to the current transaction");
+        }
+        return entityManager;
+    }
+}
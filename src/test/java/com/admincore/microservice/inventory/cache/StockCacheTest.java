@@ -0,0 +1,135 @@
+package com.admincore.microservice.inventory.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final StockCache cache = new StockCache(true, 64, Duration.ofSeconds(10), now::get);
+
+    @Test
+    void getReturnsLoadedStock() {
+        assertTrue(cache.putIfUnchanged(7L, 1L, 40, 0, cache.loadToken(7L)));
+
+        StockCache.Stock stock = cache.get(7L);
+        assertEquals(1L, stock.id());
+        assertEquals(7L, stock.productId());
+        assertEquals(40, stock.quantity());
+    }
+
+    @Test
+    void getCountsHitsAndMisses() {
+        assertNull(cache.get(7L));
+        cache.putIfUnchanged(7L, 1L, 40, 0, cache.loadToken(7L));
+        cache.get(7L);
+        cache.get(7L);
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        cache.putIfUnchanged(7L, 1L, 40, 0, cache.loadToken(7L));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertNull(cache.get(7L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void sizeStaysBounded() {
+        for (long productId = 0; productId < 1_000; productId++) {
+            now.incrementAndGet();
+            cache.putIfUnchanged(productId, productId, 1, 0, cache.loadToken(productId));
+        }
+
+        assertTrue(cache.size() <= 64, "size was " + cache.size());
+        assertNotNull(cache.get(999L));
+    }
+
+    @Test
+    void removalKeepsCollidingEntriesReachable() {
+        StockCache small = new StockCache(true, 10_000, Duration.ZERO, now::get);
+        for (long productId = 0; productId < 1_000; productId++) {
+            small.putIfUnchanged(productId, productId, (int) productId, 0, small.loadToken(productId));
+        }
+        for (long productId = 0; productId < 1_000; productId += 2) {
+            small.invalidate(productId);
+        }
+
+        for (long productId = 1; productId < 1_000; productId += 2) {
+            assertEquals((int) productId, small.get(productId).quantity());
+        }
+        assertEquals(500, small.size());
+    }
+
+    @Test
+    void putIsDroppedWhenWriteStartedDuringLoad() {
+        long token = cache.loadToken(7L);
+        StockCache.Write write = cache.beginWrite(7L);
+
+        assertFalse(cache.putIfUnchanged(7L, 1L, 40, 0, token));
+        write.put(1L, 35, 0);
+        write.complete(true);
+        assertFalse(cache.putIfUnchanged(7L, 1L, 40, 0, token));
+        assertEquals(35, cache.get(7L).quantity());
+    }
+
+    @Test
+    void committedAdjustmentUpdatesCachedStock() {
+        cache.putIfUnchanged(7L, 1L, 40, 0, cache.loadToken(7L));
+
+        StockCache.Write write = cache.beginWrite(7L);
+        write.adjust(-3);
+        write.complete(true);
+
+        assertEquals(37, cache.get(7L).quantity());
+    }
+
+    @Test
+    void committedAdjustmentUpdatesReservedUnits() {
+        cache.putIfUnchanged(7L, 1L, 40, 5, cache.loadToken(7L));
+
+        StockCache.Write write = cache.beginWrite(7L);
+        write.adjust(-2, -2);
+        write.complete(true);
+
+        StockCache.Stock stock = cache.get(7L);
+        assertEquals(38, stock.quantity());
+        assertEquals(3, stock.reserved());
+    }
+
+    @Test
+    void rolledBackOrOverlappingWritesInvalidate() {
+        cache.putIfUnchanged(7L, 1L, 40, 0, cache.loadToken(7L));
+        StockCache.Write rolledBack = cache.beginWrite(7L);
+        rolledBack.adjust(-3);
+        rolledBack.complete(false);
+        assertNull(cache.get(7L));
+
+        cache.putIfUnchanged(7L, 1L, 40, 0, cache.loadToken(7L));
+        StockCache.Write first = cache.beginWrite(7L);
+        StockCache.Write second = cache.beginWrite(7L);
+        first.adjust(-1);
+        second.adjust(-2);
+        first.complete(true);
+        second.complete(true);
+        assertNull(cache.get(7L));
+    }
+
+    @Test
+    void disabledCacheNeverHits() {
+        StockCache disabled = new StockCache(false, 64, Duration.ofSeconds(10));
+
+        assertFalse(disabled.putIfUnchanged(7L, 1L, 40, 0, disabled.loadToken(7L)));
+        disabled.beginWrite(7L).complete(true);
+        assertNull(disabled.get(7L));
+    }
+}
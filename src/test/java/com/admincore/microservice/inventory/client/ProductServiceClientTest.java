@@ -1,8 +1,13 @@
 package com.admincore.microservice.inventory.client;
 
 import com.admincore.microservice.inventory.exception.ProductServiceException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
@@ -10,6 +15,13 @@ import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -24,6 +36,7 @@ class ProductServiceClientTest {
     private WebClient.ResponseSpec responseSpec;
     private ProductServiceClient client;
     private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -32,14 +45,12 @@ class ProductServiceClientTest {
         headersSpec = mock(WebClient.RequestHeadersSpec.class);
         responseSpec = mock(WebClient.ResponseSpec.class);
         objectMapper = new ObjectMapper();
+        meterRegistry = new SimpleMeterRegistry();
 
-        WebClient.Builder builder = mock(WebClient.Builder.class);
-        when(builder.build()).thenReturn(mockWebClient);
-
-        client = new ProductServiceClient(builder, "/products", "TEST_KEY");
+        client = newClient(false);
 
         when(mockWebClient.get()).thenReturn((WebClient.RequestHeadersUriSpec) uriSpec);
-        when(uriSpec.uri(anyString())).thenReturn((WebClient.RequestHeadersSpec) headersSpec);
+        when(uriSpec.uri(any(URI.class))).thenReturn((WebClient.RequestHeadersSpec) headersSpec);
         when(headersSpec.accept(any(MediaType.class))).thenReturn((WebClient.RequestHeadersSpec) headersSpec);
         when(headersSpec.header(anyString(), anyString())).thenReturn((WebClient.RequestHeadersSpec) headersSpec);
         when(headersSpec.retrieve()).thenReturn(responseSpec);
@@ -47,22 +58,39 @@ class ProductServiceClientTest {
 
     @Test
     void isProductAvailable_returnsTrue_whenDataPresent() throws Exception {
-        JsonNode json = objectMapper.readTree("{\"data\": {\"id\": 1}}");
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(json));
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"id\": 1}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
         assertTrue(client.isProductAvailable(1L));
     }
 
     @Test
     void isProductAvailable_returnsFalse_whenNotFound() {
-        when(responseSpec.bodyToMono(JsonNode.class)).thenThrow(
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenThrow(
                 WebClientResponseException.create(404, "Not Found", null, null, null)
         );
         assertFalse(client.isProductAvailable(999L));
     }
 
+    @Test
+    void getProductInfo_recordsRoundTripTimerByOutcome() throws Exception {
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"id\": 1}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class))
+                .thenReturn(Mono.just(json))
+                .thenThrow(WebClientResponseException.create(404, "Not Found", null, null, null));
+
+        client.getProductInfo(1L);
+        client.getProductInfo(1L);
+        client.getProductInfo(2L);
+
+        assertEquals(1, meterRegistry.get("product.service.requests")
+                .tags("call", "single", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("product.service.requests")
+                .tags("call", "single", "outcome", "not_found").timer().count());
+    }
+
     @Test
     void isProductAvailable_clientError_throwsException() {
-        when(responseSpec.bodyToMono(JsonNode.class)).thenThrow(
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenThrow(
                 WebClientResponseException.create(400, "Bad Request", null, null, null)
         );
         ProductServiceException ex = assertThrows(ProductServiceException.class, () -> client.isProductAvailable(1L));
@@ -71,7 +99,7 @@ class ProductServiceClientTest {
 
     @Test
     void isProductAvailable_serverError_throwsException() {
-        when(responseSpec.bodyToMono(JsonNode.class)).thenThrow(
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenThrow(
                 WebClientResponseException.create(500, "Internal Error", null, null, null)
         );
         ProductServiceException ex = assertThrows(ProductServiceException.class, () -> client.isProductAvailable(1L));
@@ -80,29 +108,204 @@ class ProductServiceClientTest {
 
     @Test
     void getProductName_returnsName_whenPresent() throws Exception {
-        JsonNode json = objectMapper.readTree("{\"data\": {\"attributes\": {\"name\": \"Test Product\"}}}");
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(json));
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"attributes\": {\"name\": \"Test Product\"}}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
         assertEquals("Test Product", client.getProductName(1L));
     }
 
     @Test
     void getProductName_returnsUnknown_whenNameMissing() throws Exception {
-        JsonNode json = objectMapper.readTree("{\"data\": {\"attributes\": {}}}");
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(json));
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"attributes\": {}}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
         assertEquals("Unknown Product", client.getProductName(1L));
     }
 
     @Test
     void getProductName_returnsUnknown_onException() {
-        when(responseSpec.bodyToMono(JsonNode.class)).thenThrow(new RuntimeException("Error"));
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenThrow(new RuntimeException("Error"));
         assertEquals("Unknown Product", client.getProductName(1L));
     }
 
     @Test
     void isProductAvailable_shouldSendApiKeyHeader() throws Exception {
-        JsonNode json = objectMapper.readTree("{\"data\": {\"id\": 1}}");
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(json));
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"id\": 1}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
         assertTrue(client.isProductAvailable(1L));
         verify(headersSpec).header(eq("X-API-KEY"), eq("TEST_KEY"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void isProductAvailable_andGetProductName_shareSingleCachedCall() throws Exception {
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"attributes\": {\"name\": \"Test Product\"}}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
+
+        assertTrue(client.isProductAvailable(1L));
+        assertEquals("Test Product", client.getProductName(1L));
+        assertTrue(client.isProductAvailable(1L));
+
+        verify(mockWebClient, times(1)).get();
+    }
+
+    @Test
+    void isProductAvailable_cachesNotFoundResponses() {
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenThrow(
+                WebClientResponseException.create(404, "Not Found", null, null, null)
+        );
+
+        assertFalse(client.isProductAvailable(999L));
+        assertFalse(client.isProductAvailable(999L));
+
+        verify(mockWebClient, times(1)).get();
+    }
+
+    @Test
+    void isProductAvailable_doesNotCacheServerErrors() {
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenThrow(
+                WebClientResponseException.create(503, "Unavailable", null, null, null)
+        );
+
+        assertThrows(ProductServiceException.class, () -> client.isProductAvailable(1L));
+        assertThrows(ProductServiceException.class, () -> client.isProductAvailable(1L));
+
+        verify(mockWebClient, times(2)).get();
+    }
+
+    @Test
+    void getProductInfo_bindsAttributesFromSingleCall() throws Exception {
+        ProductDocument json = objectMapper.readValue(
+                "{\"data\": {\"id\": \"1\", \"type\": \"products\", \"attributes\": {\"name\": \"Test Product\", \"price\": 19.99, \"description\": \"Desc\", \"stock\": 4}}}",
+                ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
+
+        ProductInfo info = client.getProductInfo(1L);
+
+        assertTrue(info.exists());
+        assertEquals(1L, info.id());
+        assertEquals("Test Product", info.name());
+        assertEquals(new BigDecimal("19.99"), info.price());
+        assertEquals("Desc", info.description());
+    }
+
+    @Test
+    void getProductInfo_returnsNotFound_whenProductMissing() {
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenThrow(
+                WebClientResponseException.create(404, "Not Found", null, null, null)
+        );
+
+        ProductInfo info = client.getProductInfo(999L);
+
+        assertFalse(info.exists());
+        assertEquals(ProductInfo.UNKNOWN_NAME, info.displayName());
+    }
+
+    @Test
+    void getProductInfoAsync_populatesCacheForBlockingCallers() throws Exception {
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"attributes\": {\"name\": \"Test Product\"}}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
+
+        ProductInfo info = client.getProductInfoAsync(1L).block();
+
+        assertNotNull(info);
+        assertEquals("Test Product", info.name());
+        assertEquals("Test Product", client.getProductName(1L));
+        verify(mockWebClient, times(1)).get();
+    }
+
+    @Test
+    void getProductInfoAsync_signalsProductServiceException_onServerError() {
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(
+                Mono.error(WebClientResponseException.create(502, "Bad Gateway", null, null, null))
+        );
+
+        ProductServiceException ex = assertThrows(ProductServiceException.class, () -> client.getProductInfoAsync(1L).block());
+        assertEquals(HttpStatus.BAD_GATEWAY, ex.getStatus());
+    }
+
+    @Test
+    void getProductInfoAsync_coalescesConcurrentLookupsForSameProduct() throws Exception {
+        Sinks.One<ProductDocument> response = Sinks.one();
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(response.asMono());
+
+        Mono<ProductInfo> first = client.getProductInfoAsync(1L);
+        Mono<ProductInfo> second = client.getProductInfoAsync(1L);
+        var firstResult = first.toFuture();
+        var secondResult = second.toFuture();
+        response.tryEmitValue(objectMapper.readValue("{\"data\": {\"attributes\": {\"name\": \"Test Product\"}}}", ProductDocument.class));
+
+        assertEquals("Test Product", firstResult.get().name());
+        assertEquals("Test Product", secondResult.get().name());
+        verify(mockWebClient, times(1)).get();
+    }
+
+    @Test
+    void getProductInfos_fansOutPerProduct_whenBatchEndpointDisabled() throws Exception {
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"attributes\": {\"name\": \"Test Product\"}}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
+        client.getProductInfo(1L);
+
+        Map<Long, ProductInfo> products = client.getProductInfos(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(3, products.size());
+        assertTrue(products.get(3L).exists());
+        verify(uriSpec).uri(URI.create("/products/2"));
+        verify(uriSpec).uri(URI.create("/products/3"));
+        verify(mockWebClient, times(3)).get();
+    }
+
+    @Test
+    void getProductInfos_usesSingleBatchCall_whenBatchEndpointEnabled() throws Exception {
+        client = newClient(true);
+        ProductCollectionDocument json = objectMapper.readValue(
+                "{\"data\": [{\"id\": \"1\", \"attributes\": {\"name\": \"Keyboard\"}}, {\"id\": \"3\", \"attributes\": {\"name\": \"Mouse\"}}]}",
+                ProductCollectionDocument.class);
+        when(responseSpec.bodyToMono(ProductCollectionDocument.class)).thenReturn(Mono.just(json));
+
+        Map<Long, ProductInfo> products = client.getProductInfos(List.of(1L, 2L, 3L));
+
+        assertEquals("Keyboard", products.get(1L).name());
+        assertFalse(products.get(2L).exists());
+        assertEquals("Mouse", products.get(3L).name());
+        verify(uriSpec).uri(URI.create("/products?filter%5Bid%5D=1%2C2%2C3"));
+        verify(mockWebClient, times(1)).get();
+
+        assertEquals("Mouse", client.getProductName(3L));
+        verify(mockWebClient, times(1)).get();
+    }
+
+    @Test
+    void getProductInfos_fallsBackToIndividualLookups_whenBatchEndpointMissing() throws Exception {
+        client = newClient(true);
+        when(responseSpec.bodyToMono(ProductCollectionDocument.class)).thenReturn(
+                Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null)));
+        ProductDocument json = objectMapper.readValue("{\"data\": {\"attributes\": {\"name\": \"Test Product\"}}}", ProductDocument.class);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.just(json));
+
+        assertEquals(2, client.getProductInfos(List.of(1L, 2L)).size());
+        assertEquals(1, client.getProductInfos(List.of(3L)).size());
+
+        verify(uriSpec, times(1)).uri(URI.create("/products?filter%5Bid%5D=1%2C2"));
+        verify(uriSpec).uri(URI.create("/products/3"));
+        verify(mockWebClient, times(4)).get();
+    }
+
+    @Test
+    void getProductInfo_timesOut_withGatewayTimeout() {
+        client = new ProductServiceClient(mockWebClient, Caffeine.newBuilder().build(), guard(Duration.ofMillis(50)),
+                meterRegistry, "/products", "TEST_KEY", false, 100, 4);
+        when(responseSpec.bodyToMono(ProductDocument.class)).thenReturn(Mono.never());
+
+        ProductServiceException ex = assertThrows(ProductServiceException.class, () -> client.getProductInfo(1L));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, ex.getStatus());
+    }
+
+    private ProductServiceClient newClient(boolean batchEnabled) {
+        return new ProductServiceClient(mockWebClient, Caffeine.newBuilder().build(), guard(Duration.ofSeconds(5)),
+                meterRegistry, "/products", "TEST_KEY", batchEnabled, 100, 4);
+    }
+
+    private static ProductServiceGuard guard(Duration callTimeout) {
+        return new ProductServiceGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), Caffeine.newBuilder().build(),
+                new SimpleMeterRegistry(), callTimeout);
+    }
+}
@@ -0,0 +1,99 @@
+package com.admincore.microservice.inventory.client;
+
+import com.admincore.microservice.inventory.exception.ProductServiceException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductServiceGuardTest {
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductServiceGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new ProductServiceGuard(
+                circuitBreakerRegistry,
+                BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build()),
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()),
+                Caffeine.newBuilder().build(),
+                meterRegistry,
+                Duration.ofMillis(200));
+    }
+
+    @Test
+    void lookup_opensCircuit_afterRepeatedFailures() {
+        Mono<ProductInfo> failing = Mono.error(WebClientResponseException.create(503, "Unavailable", null, null, null));
+
+        assertThrows(WebClientResponseException.class, () -> guard.lookup(1L, failing).block());
+        assertThrows(WebClientResponseException.class, () -> guard.lookup(1L, failing).block());
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+    }
+
+    @Test
+    void lookup_servesLastKnownProduct_whenCircuitOpen() {
+        ProductInfo product = new ProductInfo(1L, true, "Keyboard", null, null);
+        assertEquals(product, guard.lookup(1L, Mono.just(product)).block());
+        circuitBreakerRegistry.circuitBreaker(ProductServiceGuard.INSTANCE).transitionToOpenState();
+
+        ProductInfo degraded = guard.lookup(1L, Mono.error(new AssertionError("product service must not be called"))).block();
+
+        assertEquals(product, degraded);
+        assertEquals(1.0, meterRegistry.counter("product.service.degraded", "outcome", "hit").count());
+    }
+
+    @Test
+    void lookup_failsWithServiceUnavailable_whenCircuitOpenAndProductUnknown() {
+        circuitBreakerRegistry.circuitBreaker(ProductServiceGuard.INSTANCE).transitionToOpenState();
+
+        ProductServiceException ex = assertThrows(ProductServiceException.class,
+                () -> guard.lookup(2L, Mono.just(ProductInfo.notFound(2L))).block());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        assertEquals(1.0, meterRegistry.counter("product.service.degraded", "outcome", "miss").count());
+    }
+
+    @Test
+    void lookup_rejectsCalls_beyondBulkheadLimit() {
+        Disposable pending = guard.lookup(1L, Mono.never()).subscribe(product -> { }, error -> { });
+        try {
+            ProductServiceException ex = assertThrows(ProductServiceException.class,
+                    () -> guard.lookup(2L, Mono.just(ProductInfo.notFound(2L))).block());
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        } finally {
+            pending.dispose();
+        }
+    }
+
+    @Test
+    void protect_timesOutHungCalls() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> guard.protect(Mono.never()).block());
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+    }
+}
@@ -1,42 +1,48 @@
 package com.admincore.microservice.inventory.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
-import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ApiKeyFilterTest {
 
-    @InjectMocks
     private ApiKeyFilter apiKeyFilter;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @Mock
     private FilterChain filterChain;
 
     private static final String VALID_API_KEY = "INVENTORY_SERVICE_KEY";
+    private static final String NEXT_API_KEY = "NEXT_INVENTORY_SERVICE_KEY";
     private static final String INVALID_API_KEY = "wrong-api-key";
     private static final String HEADER_NAME = "x-api-key";
 
     @BeforeEach
-    void setUp() throws Exception {
-        Field apiKeyField = ApiKeyFilter.class.getDeclaredField("apiKey");
-        apiKeyField.setAccessible(true);
-        apiKeyField.set(apiKeyFilter, VALID_API_KEY);
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        apiKeyFilter = new ApiKeyFilter(VALID_API_KEY, new String[]{NEXT_API_KEY}, meterRegistry);
     }
 
     @Test
@@ -51,6 +57,23 @@ class ApiKeyFilterTest {
         assertEquals(HttpServletResponse.SC_OK, response.getStatus());
     }
 
+    @Test
+    void doFilter_shouldCountAcceptedKeyOnceAcrossAsyncAndErrorDispatches() throws ServletException, java.io.IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HEADER_NAME, VALID_API_KEY);
+
+        apiKeyFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        apiKeyFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        request.setDispatcherType(DispatcherType.ERROR);
+        apiKeyFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain, times(3)).doFilter(eq(request), any());
+        assertEquals(1.0, meterRegistry.get("security.api-key.requests").tag("outcome", "accepted").counters().stream()
+                .mapToDouble(Counter::count).sum());
+        assertNotNull(ApiKeyFilter.keyFingerprint(request));
+    }
+
     @Test
     void doFilter_shouldRejectRequestWithInvalidApiKey() throws ServletException, java.io.IOException {
         MockHttpServletRequest request = new MockHttpServletRequest();
@@ -61,6 +84,45 @@ class ApiKeyFilterTest {
 
         verify(filterChain, never()).doFilter(any(), any());
         assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertThat(response.getContentAsString(), containsString("\"title\":\"Unauthorized\""));
+    }
+
+    @Test
+    void doFilter_shouldAcceptEveryConfiguredKeyAndCountThemSeparately() throws ServletException, java.io.IOException {
+        for (String key : new String[]{VALID_API_KEY, NEXT_API_KEY, NEXT_API_KEY}) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(HEADER_NAME, key);
+            apiKeyFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        }
+
+        verify(filterChain, times(3)).doFilter(any(), any());
+        assertEquals(2, meterRegistry.get("security.api-key.requests").tag("outcome", "accepted").counters().size());
+        assertEquals(3, meterRegistry.get("security.api-key.requests").tag("outcome", "accepted").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void doFilter_shouldRejectKeyThatOnlySharesAPrefix() throws ServletException, java.io.IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HEADER_NAME, VALID_API_KEY + "X");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        apiKeyFilter.doFilter(request, response, filterChain);
+
+        verify(filterChain, never()).doFilter(any(), any());
+        assertEquals(1, meterRegistry.get("security.api-key.requests").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void matchingKey_shouldCompareAgainstEncodedKeys() {
+        byte[][] keys = {"alpha".getBytes(StandardCharsets.UTF_8), "beta".getBytes(StandardCharsets.UTF_8)};
+
+        assertEquals(0, ApiKeyFilter.matchingKey("alpha", keys));
+        assertEquals(1, ApiKeyFilter.matchingKey("beta", keys));
+        assertEquals(-1, ApiKeyFilter.matchingKey("alph", keys));
+        assertEquals(-1, ApiKeyFilter.matchingKey("", keys));
+        assertEquals(-1, ApiKeyFilter.matchingKey(null, keys));
     }
 
     @Test
@@ -108,6 +170,18 @@ class ApiKeyFilterTest {
         verify(filterChain).doFilter(request, response);
         assertEquals(HttpServletResponse.SC_OK, response.getStatus());
     }
+    @Test
+    void doFilter_shouldAllowSwaggerUiUnderContextPathWithoutApiKey() throws ServletException, java.io.IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContextPath("/api");
+        request.setRequestURI("/api/swagger-ui/index.html");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        apiKeyFilter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+    }
+
     @Test
     void destroy_shouldCallSuperDestroy() {
         assertDoesNotThrow(() -> apiKeyFilter.destroy());
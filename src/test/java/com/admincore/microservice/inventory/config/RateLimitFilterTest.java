@@ -0,0 +1,138 @@
+package com.admincore.microservice.inventory.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private static final String KEY = "3f9a1c2e";
+    private static final String OTHER_KEY = "b71d04aa";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final FilterChain filterChain = mock(FilterChain.class);
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Endpoint purchases = new RateLimitProperties.Endpoint();
+        purchases.setMethod("POST");
+        purchases.setPath("/inventory/purchases");
+        purchases.setLimit(limit(1, 2));
+        purchases.setKeys(Map.of(OTHER_KEY, limit(1, 1)));
+        purchases.getConcurrency().setMinLimit(1);
+        purchases.getConcurrency().setMaxLimit(1);
+        purchases.getConcurrency().setLatencyThreshold(Duration.ofMillis(500));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEndpoints(Map.of("purchases", purchases));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    void doFilter_shouldRejectWith429OnceKeyExhaustsItsBurst() throws ServletException, IOException {
+        assertEquals(HttpStatus.OK.value(), send("POST", "/inventory/purchases", KEY).getStatus());
+        assertEquals(HttpStatus.OK.value(), send("POST", "/inventory/purchases", KEY).getStatus());
+
+        MockHttpServletResponse rejected = send("POST", "/inventory/purchases", KEY);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertThat(rejected.getContentAsString(), containsString("\"status\":\"429\""));
+        verify(filterChain, times(2)).doFilter(any(), any());
+        assertEquals(1.0, meterRegistry.get("inventory.rate-limit.rejected")
+                .tag("endpoint", "purchases").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void doFilter_shouldKeepSeparateBucketsAndOverridesPerKey() throws ServletException, IOException {
+        assertEquals(HttpStatus.OK.value(), send("POST", "/inventory/purchases", OTHER_KEY).getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("POST", "/inventory/purchases", OTHER_KEY).getStatus());
+
+        assertEquals(HttpStatus.OK.value(), send("POST", "/inventory/purchases", KEY).getStatus());
+    }
+
+    @Test
+    void doFilter_shouldShedWith503WhenConcurrencyLimitIsReached() throws ServletException, IOException {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        doAnswer(invocation -> {
+            if (nested[0] == null) {
+                nested[0] = send("POST", "/inventory/purchases", OTHER_KEY);
+            }
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        MockHttpServletResponse first = send("POST", "/inventory/purchases", KEY);
+
+        assertEquals(HttpStatus.OK.value(), first.getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), nested[0].getStatus());
+        assertThat(nested[0].getContentAsString(), containsString("\"status\":\"503\""));
+        assertEquals(1.0, meterRegistry.get("inventory.rate-limit.rejected")
+                .tag("endpoint", "purchases").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    void doFilter_shouldHoldConcurrencySlotUntilAsyncRequestCompletes() throws ServletException, IOException {
+        doAnswer(invocation -> invocation.<MockHttpServletRequest>getArgument(0).startAsync())
+                .when(filterChain).doFilter(any(), any());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/inventory/purchases");
+        request.setAsyncSupported(true);
+        request.setAttribute(ApiKeyFilter.KEY_ATTRIBUTE, KEY);
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        doNothing().when(filterChain).doFilter(any(), any());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), send("POST", "/inventory/purchases", OTHER_KEY).getStatus());
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        clock.set(Duration.ofSeconds(1).toNanos());
+
+        assertEquals(HttpStatus.OK.value(), send("POST", "/inventory/purchases", OTHER_KEY).getStatus());
+    }
+
+    @Test
+    void doFilter_shouldNotLimitOtherEndpointsOrMethods() throws ServletException, IOException {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK.value(), send("GET", "/inventory/purchases", KEY).getStatus());
+            assertEquals(HttpStatus.OK.value(), send("POST", "/inventory/purchases/batch", KEY).getStatus());
+        }
+
+        verify(filterChain, times(10)).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String key) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setAttribute(ApiKeyFilter.KEY_ATTRIBUTE, key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private static RateLimitProperties.Limit limit(double rate, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setRate(rate);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
@@ -0,0 +1,76 @@
+package com.admincore.microservice.inventory.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RequestLogFilterTest {
+
+    private final FilterChain filterChain = mock(FilterChain.class);
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLogFilter.class);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        events.start();
+        logger.addAppender(events);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(events);
+    }
+
+    @Test
+    void doFilter_shouldLogSampledRequestWithFields() throws ServletException, IOException {
+        RequestLogFilter filter = new RequestLogFilter(0.5, () -> 0.1);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/inventory/purchases");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(HttpStatus.CREATED.value());
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertEquals(1, events.list.size());
+        ILoggingEvent event = events.list.get(0);
+        assertTrue(event.getFormattedMessage().startsWith("POST /inventory/purchases -> 201 in "));
+        assertTrue(event.getKeyValuePairs().stream()
+                .anyMatch(pair -> pair.key.equals("http.response.status_code") && pair.value.equals(201)));
+    }
+
+    @Test
+    void doFilter_shouldSkipRequestsOutsideTheSample() throws ServletException, IOException {
+        RequestLogFilter filter = new RequestLogFilter(0.01, () -> 0.5);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/inventory/1"), new MockHttpServletResponse(), filterChain);
+
+        assertTrue(events.list.isEmpty());
+    }
+
+    @Test
+    void doFilter_shouldAlwaysLogServerErrors() throws ServletException, IOException {
+        RequestLogFilter filter = new RequestLogFilter(0, () -> 0.5);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/inventory/purchases"), response, filterChain);
+
+        assertEquals(1, events.list.size());
+    }
+}
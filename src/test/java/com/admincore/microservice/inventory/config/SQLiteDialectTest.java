@@ -1,6 +1,7 @@
 package com.admincore.microservice.inventory.config;
 
 import org.hibernate.dialect.identity.IdentityColumnSupport;
+import org.hibernate.dialect.pagination.LimitOffsetLimitHandler;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,4 +34,11 @@ class SQLiteDialectTest {
         assertFalse(dialect.supportsCascadeDelete());
         assertEquals("", dialect.getDropForeignKeyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLimitHandler() {
+        SQLiteDialect dialect = new SQLiteDialect();
+
+        assertSame(LimitOffsetLimitHandler.INSTANCE, dialect.getLimitHandler());
+    }
+}
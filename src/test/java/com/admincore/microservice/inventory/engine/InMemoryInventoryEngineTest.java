@@ -0,0 +1,175 @@
+package com.admincore.microservice.inventory.engine;
+
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class InMemoryInventoryEngineTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    private final Map<Long, Integer> table = new HashMap<>();
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        table.put(1L, 10);
+        table.put(2L, 5);
+        doAnswer(invocation -> {
+            Consumer<Inventory> action = invocation.getArgument(0);
+            table.forEach((productId, quantity) -> action.accept(new Inventory(productId, productId, quantity)));
+            return null;
+        }).when(inventoryRepository).forEachInventory(any());
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            PreparedStatement ps = mock(PreparedStatement.class);
+            Map<Integer, Object> values = new HashMap<>();
+            doAnswer(set -> values.put(1, set.getArgument(1))).when(ps).setInt(eq(1), anyInt());
+            doAnswer(set -> values.put(2, set.getArgument(1))).when(ps).setLong(eq(2), anyLong());
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                setter.setValues(ps, i);
+                table.put((Long) values.get(2), (Integer) values.get(1));
+            }
+            return new int[setter.getBatchSize()];
+        });
+    }
+
+    @Test
+    void decrementAppliesOnlyWhenStockIsAvailable() {
+        InMemoryInventoryEngine engine = start();
+
+        assertEquals(7, engine.decrement(1L, 3));
+        assertEquals(InMemoryInventoryEngine.INSUFFICIENT, engine.decrement(1L, 8));
+        assertEquals(InMemoryInventoryEngine.NOT_FOUND, engine.decrement(3L, 1));
+        assertEquals(7, engine.get(1L).quantity());
+        engine.close();
+    }
+
+    @Test
+    void decrementAllIsAllOrNothing() {
+        InMemoryInventoryEngine engine = start();
+
+        assertEquals(2, engine.decrementAll(new long[]{1L, 2L, 1L}, new int[]{4, 5, 7}));
+        assertEquals(10, engine.get(1L).quantity());
+        assertEquals(5, engine.get(2L).quantity());
+
+        assertEquals(-1, engine.decrementAll(new long[]{1L, 2L, 1L}, new int[]{4, 5, 6}));
+        assertEquals(0, engine.get(1L).quantity());
+        assertEquals(0, engine.get(2L).quantity());
+        engine.close();
+    }
+
+    @Test
+    void flushPersistsCountersAndCheckpointsJournal() {
+        InMemoryInventoryEngine engine = start();
+        engine.decrement(1L, 3);
+        engine.decrement(2L, 1);
+        assertEquals(2, engine.pendingRecords());
+
+        engine.flush();
+
+        assertEquals(7, table.get(1L));
+        assertEquals(4, table.get(2L));
+        assertEquals(0, engine.pendingRecords());
+        engine.close();
+    }
+
+    @Test
+    void restartReplaysJournalTailOverTable() {
+        InMemoryInventoryEngine crashed = start();
+        crashed.decrement(1L, 3);
+        crashed.flush();
+        crashed.decrement(1L, 2);
+        crashed.set(2L, 2L, 40);
+        // no close(): the last two mutations only exist in the journal
+
+        InMemoryInventoryEngine restarted = start();
+
+        assertEquals(5, restarted.get(1L).quantity());
+        assertEquals(40, restarted.get(2L).quantity());
+        assertEquals(5, table.get(1L));
+        assertEquals(40, table.get(2L));
+        restarted.close();
+    }
+
+    @Test
+    void failedFlushKeepsJournalForReplay() {
+        InMemoryInventoryEngine engine = start();
+        engine.decrement(1L, 3);
+        doThrow(new IllegalStateException("database is locked")).when(transactionTemplate).executeWithoutResult(any());
+
+        assertThrows(IllegalStateException.class, engine::flush);
+
+        assertEquals(1, engine.pendingRecords());
+        assertEquals(10, table.get(1L));
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        table.put(1L, 10_000);
+        InMemoryInventoryEngine engine = start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int applied = 0;
+                    for (int i = 0; i < 2_000; i++) {
+                        if (engine.decrement(1L, 1) >= 0) {
+                            applied++;
+                        }
+                    }
+                    return applied;
+                }));
+            }
+            int applied = 0;
+            for (Future<Integer> result : results) {
+                applied += result.get();
+            }
+
+            assertEquals(10_000, applied);
+            assertEquals(0, engine.get(1L).quantity());
+        } finally {
+            executor.shutdownNow();
+            engine.close();
+        }
+    }
+
+    private InMemoryInventoryEngine start() {
+        InMemoryInventoryEngine engine = new InMemoryInventoryEngine(inventoryRepository, jdbcTemplate, transactionTemplate,
+                journalDirectory, 4096, 4, Duration.ofHours(1));
+        engine.start();
+        return engine;
+    }
+}
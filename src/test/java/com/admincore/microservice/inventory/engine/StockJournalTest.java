@@ -0,0 +1,63 @@
+package com.admincore.microservice.inventory.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsAfterCheckpointInSequenceOrder() {
+        StockJournal journal = new StockJournal(directory, 10 * StockJournal.RECORD_SIZE);
+        journal.recover((sequence, productId, quantity) -> fail("journal should be empty"));
+        for (int i = 0; i < 25; i++) {
+            journal.append(i % 3, i);
+        }
+        journal.checkpoint(12);
+        journal.close();
+
+        List<Long> sequences = new ArrayList<>();
+        StockJournal reopened = new StockJournal(directory, 10 * StockJournal.RECORD_SIZE);
+        reopened.recover((sequence, productId, quantity) -> {
+            sequences.add(sequence);
+            assertEquals(sequence % 3, productId);
+            assertEquals((int) sequence, quantity);
+        });
+
+        assertEquals(13, sequences.size());
+        assertEquals(12L, sequences.get(0));
+        assertEquals(25, reopened.nextSequence());
+        assertFalse(Files.exists(directory.resolve(String.format("journal-%020d.log", 0))));
+    }
+
+    @Test
+    void skipsTornRecords() throws Exception {
+        StockJournal journal = new StockJournal(directory, 10 * StockJournal.RECORD_SIZE);
+        journal.recover((sequence, productId, quantity) -> {
+        });
+        journal.append(1L, 5);
+        journal.append(1L, 4);
+        journal.append(1L, 3);
+        journal.close();
+        try (RandomAccessFile segment = new RandomAccessFile(directory.resolve(String.format("journal-%020d.log", 0)).toFile(), "rw")) {
+            segment.seek(StockJournal.RECORD_SIZE + 16);
+            segment.writeInt(99);
+        }
+
+        List<Integer> quantities = new ArrayList<>();
+        new StockJournal(directory, 10 * StockJournal.RECORD_SIZE)
+                .recover((sequence, productId, quantity) -> quantities.add(quantity));
+
+        assertEquals(List.of(5, 3), quantities);
+    }
+}
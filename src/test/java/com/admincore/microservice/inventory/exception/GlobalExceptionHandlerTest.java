@@ -57,6 +57,22 @@ class GlobalExceptionHandlerTest {
         assertEquals(message, error.get("detail"));
     }
 
+    @Test
+    void handleReservationState_shouldReturn409WithErrorMessage() {
+        String message = "Reservation 1 is CONFIRMED";
+        ReservationStateException ex = new ReservationStateException(message);
+
+        ResponseEntity<JsonApiResponse<Object>> response = handler.handleReservationState(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+
+        Map<String, Object> error = response.getBody().getErrors().get(0);
+        assertEquals("409", error.get("status"));
+        assertEquals("Reservation Conflict", error.get("title"));
+        assertEquals(message, error.get("detail"));
+    }
+
     @Test
     void handleGeneric_shouldReturn500WithErrorMessage() {
         String message = "Unexpected error occurred";
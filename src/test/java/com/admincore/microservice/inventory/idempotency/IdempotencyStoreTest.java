@@ -0,0 +1,204 @@
+package com.admincore.microservice.inventory.idempotency;
+
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.dto.PurchaseResponse;
+import com.admincore.microservice.inventory.exception.IdempotencyException;
+import com.admincore.microservice.inventory.exception.InsufficientInventoryException;
+import com.admincore.microservice.inventory.model.IdempotencyRecord;
+import com.admincore.microservice.inventory.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private static final TypeReference<PurchaseResponse> RESPONSE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdempotencyStore store = store(null);
+    private final PurchaseRequest request = new PurchaseRequest(1L, 2);
+
+    @Test
+    void retryReplaysFirstResultWithoutRunningAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        PurchaseResponse first = store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(runs));
+        PurchaseResponse retry = store.execute("purchase", "client-a", "key-1", new PurchaseRequest(1L, 2), RESPONSE, () -> purchase(runs));
+
+        assertEquals(1, runs.get());
+        assertSame(first, retry);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<PurchaseResponse> first = executor.submit(() -> store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> {
+                started.countDown();
+                await(release);
+                return purchase(runs);
+            }));
+            started.await();
+            Future<PurchaseResponse> duplicate = executor.submit(() ->
+                    store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(runs)));
+            release.countDown();
+
+            assertSame(first.get(), duplicate.get());
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyReusedWithDifferentRequestIsRejected() {
+        store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(new AtomicInteger()));
+
+        IdempotencyException exception = assertThrows(IdempotencyException.class, () ->
+                store.execute("purchase", "client-a", "key-1", new PurchaseRequest(1L, 3), RESPONSE, () -> purchase(new AtomicInteger())));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatus());
+    }
+
+    @Test
+    void failedExecutionIsForgotten() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThrows(InsufficientInventoryException.class, () -> store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> {
+            runs.incrementAndGet();
+            throw new InsufficientInventoryException("out of stock");
+        }));
+        store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(runs));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void keysAreScopedByOperation() {
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(runs));
+        store.execute("purchase-batch", "client-a", "key-1", request, RESPONSE, () -> purchase(runs));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void keysAreScopedByCaller() {
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(runs));
+        store.execute("purchase", "client-b", "key-1", new PurchaseRequest(1L, 3), RESPONSE, () -> purchase(runs));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void missingKeyAlwaysRuns() {
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute("purchase", "client-a", null, request, RESPONSE, () -> purchase(runs));
+        store.execute("purchase", "client-a", null, request, RESPONSE, () -> purchase(runs));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void reactiveRetryReplaysFirstResultWithoutRunningAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        PurchaseResponse first = store.executeReactive("purchase", "client-a", "key-1", request, RESPONSE,
+                () -> Mono.fromSupplier(() -> purchase(runs)), Schedulers.immediate()).block();
+        PurchaseResponse retry = store.executeReactive("purchase", "client-a", "key-1", request, RESPONSE,
+                () -> Mono.fromSupplier(() -> purchase(runs)), Schedulers.immediate()).block();
+        PurchaseResponse blockingRetry = store.execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(runs));
+
+        assertEquals(1, runs.get());
+        assertSame(first, retry);
+        assertSame(first, blockingRetry);
+    }
+
+    @Test
+    void reactiveExecutionSettlesKeyWhenCallerCancels() {
+        AtomicInteger runs = new AtomicInteger();
+        Sinks.One<PurchaseResponse> pending = Sinks.one();
+
+        store.executeReactive("purchase", "client-a", "key-1", request, RESPONSE, pending::asMono, Schedulers.immediate())
+                .subscribe()
+                .dispose();
+        pending.tryEmitValue(purchase(runs));
+        PurchaseResponse retry = store.executeReactive("purchase", "client-a", "key-1", request, RESPONSE,
+                () -> Mono.fromSupplier(() -> purchase(runs)), Schedulers.immediate()).block();
+
+        assertEquals(1, runs.get());
+        assertNotNull(retry);
+    }
+
+    @Test
+    void failedReactiveExecutionIsForgotten() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThrows(InsufficientInventoryException.class, () -> store.executeReactive("purchase", "client-a", "key-1",
+                request, RESPONSE, () -> Mono.error(new InsufficientInventoryException("out of stock")), Schedulers.immediate()).block());
+        store.executeReactive("purchase", "client-a", "key-1", request, RESPONSE,
+                () -> Mono.fromSupplier(() -> purchase(runs)), Schedulers.immediate()).block();
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void persistedResultIsReplayedAfterRestart() {
+        IdempotencyRecordRepository records = mock(IdempotencyRecordRepository.class);
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        when(records.save(saved.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+        store(records).execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(new AtomicInteger()));
+
+        when(records.findById("purchase:client-a:key-1")).thenReturn(Optional.of(saved.getValue()));
+        AtomicInteger runs = new AtomicInteger();
+        PurchaseResponse replayed = store(records).execute("purchase", "client-a", "key-1", request, RESPONSE, () -> purchase(runs));
+
+        assertEquals(0, runs.get());
+        assertEquals(2, replayed.getPurchasedQuantity());
+        verify(records, times(1)).save(any());
+    }
+
+    private IdempotencyStore store(IdempotencyRecordRepository records) {
+        return new IdempotencyStore(Caffeine.newBuilder().maximumSize(100).build(), records, objectMapper,
+                Duration.ofHours(1), Duration.ofSeconds(5));
+    }
+
+    private static PurchaseResponse purchase(AtomicInteger runs) {
+        runs.incrementAndGet();
+        return new PurchaseResponse(1L, "Test Product", 2, "Purchase successful.");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.admincore.microservice.inventory.integration;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.model.StockMovement;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.repository.StockMovementRepository;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = {InventoryServiceApplication.class, InventoryImportIntegrationTest.TestConfig.class},
+        properties = "inventory.import.batch-size=2")
+@ActiveProfiles("test")
+@AutoConfigureWebMvc
+class InventoryImportIntegrationTest {
+
+    private static final String API_KEY_HEADER = "x-api-key";
+    private static final String TEST_API_KEY = "TEST_INVENTORY_KEY";
+    private static final long UNKNOWN_PRODUCT = 99L;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        stockMovementRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        stockCache.clear();
+        clearInvocations(productServiceClient);
+        when(productServiceClient.getProductInfos(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().distinct().collect(Collectors.toMap(id -> id,
+                    id -> id == UNKNOWN_PRODUCT ? ProductInfo.notFound(id) : new ProductInfo(id, true, "Test Product", null, null)));
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stockMovementRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ProductServiceClient productServiceClient() {
+            return mock(ProductServiceClient.class);
+        }
+    }
+
+    @Test
+    public void shouldImportCsvInBatchesAndReportBadRows() throws Exception {
+        Inventory existing = inventoryRepository.save(new Inventory(null, 1L, 10, 4));
+
+        List<JsonNode> events = importStock("text/csv", """
+                productId,quantity
+                1,25
+                2,7
+                3,abc
+                99,5
+
+                4,-1
+                5,0
+                """);
+
+        assertEquals(List.of("PROGRESS", "ROW_ERROR", "ROW_ERROR", "ROW_ERROR", "PROGRESS", "COMPLETED"),
+                events.stream().map(event -> event.get("type").asText()).collect(Collectors.toList()));
+        assertEquals(4, events.get(1).get("line").asLong());
+        assertEquals(7, events.get(2).get("line").asLong());
+        assertEquals(5, events.get(3).get("line").asLong());
+        assertEquals(UNKNOWN_PRODUCT, events.get(3).get("productId").asLong());
+
+        JsonNode summary = events.get(events.size() - 1);
+        assertEquals(6, summary.get("processed").asLong());
+        assertEquals(3, summary.get("imported").asLong());
+        assertEquals(3, summary.get("failed").asLong());
+
+        Inventory updated = inventoryRepository.findByProductId(1L).orElseThrow();
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals(25, updated.getQuantity());
+        assertEquals(4, updated.getReserved());
+        assertEquals(7, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+        assertEquals(0, inventoryRepository.findByProductId(5L).orElseThrow().getQuantity());
+        assertFalse(inventoryRepository.findByProductId(UNKNOWN_PRODUCT).isPresent());
+        verify(productServiceClient, times(2)).getProductInfos(anyCollection());
+    }
+
+    @Test
+    public void shouldImportNdjsonAndRecordMovements() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+
+        List<JsonNode> events = importStock(MediaType.APPLICATION_NDJSON_VALUE, """
+                {"productId": 1, "quantity": 4}
+                {"productId": 2, "quantity": 3}
+                {"productId": 2
+                {"productId": 1, "quantity": 6}
+                """);
+
+        JsonNode summary = events.get(events.size() - 1);
+        assertEquals("COMPLETED", summary.get("type").asText());
+        assertEquals(3, summary.get("imported").asLong());
+        assertEquals(1, summary.get("failed").asLong());
+
+        assertEquals(6, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        assertEquals(3, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+        assertEquals(List.of(-6, 2), stockMovementRepository.findAll(Sort.by("id")).stream()
+                .filter(movement -> movement.getProductId() == 1L)
+                .map(StockMovement::getDelta)
+                .collect(Collectors.toList()));
+        assertEquals(3, stockLedgerService.rebuild(2L).getQuantity());
+    }
+
+    @Test
+    public void shouldEvictImportedProductsFromStockCache() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+        mockMvc.perform(get("/inventory/1").header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(jsonPath("$.data.quantity").value(10));
+
+        importStock("text/csv", "1,3\n");
+
+        mockMvc.perform(get("/inventory/1").header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantity").value(3));
+    }
+
+    private List<JsonNode> importStock(String contentType, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/inventory/import")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(contentType)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String response = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : response.trim().split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+}
@@ -1,7 +1,10 @@
 package com.admincore.microservice.inventory.integration;
 
 import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
 import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.BatchPurchaseRequest;
 import com.admincore.microservice.inventory.dto.InventoryRequest;
 import com.admincore.microservice.inventory.dto.PurchaseRequest;
 import com.admincore.microservice.inventory.model.Inventory;
@@ -18,9 +21,21 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -49,12 +64,21 @@ class InventoryIntegrationTest {
     @Autowired
     private ProductServiceClient productServiceClient;
 
+    @Autowired
+    private StockCache stockCache;
+
     @BeforeEach
     public void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
         inventoryRepository.deleteAll();
-        when(productServiceClient.isProductAvailable(anyLong())).thenReturn(true);
-        when(productServiceClient.getProductName(anyLong())).thenReturn("Test Product");
+        stockCache.clear();
+        when(productServiceClient.getProductInfo(anyLong())).thenAnswer(invocation ->
+                new ProductInfo(invocation.getArgument(0), true, "Test Product", null, null));
+        when(productServiceClient.getProductInfos(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().distinct().collect(Collectors.toMap(id -> id,
+                    id -> new ProductInfo(id, true, "Test Product", null, null)));
+        });
     }
 
     @AfterEach
@@ -119,6 +143,103 @@ class InventoryIntegrationTest {
                 .andExpect(jsonPath("$.data[1].productId").value(2L));
     }
 
+    @Test
+    public void shouldPageInventoriesWithCursor() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 100));
+        Inventory second = inventoryRepository.save(new Inventory(null, 2L, 200));
+        inventoryRepository.save(new Inventory(null, 3L, 300));
+
+        mockMvc.perform(get("/inventory")
+                        .param("page[size]", "2")
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[1].productId").value(2L))
+                .andExpect(jsonPath("$.links.next").value(containsString("page%5Bafter%5D=" + second.getId())));
+
+        mockMvc.perform(get("/inventory")
+                        .param("page[size]", "2")
+                        .param("page[after]", String.valueOf(second.getId()))
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].productId").value(3L))
+                .andExpect(jsonPath("$.links.next").doesNotExist());
+    }
+
+    @Test
+    public void shouldStreamInventoriesAsNdjson() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 100));
+        inventoryRepository.save(new Inventory(null, 2L, 200));
+
+        MvcResult result = mockMvc.perform(get("/inventory/stream")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("productId").asLong());
+    }
+
+    @Test
+    public void shouldStreamInventoriesAsJsonArray() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 100));
+        inventoryRepository.save(new Inventory(null, 2L, 200));
+
+        MvcResult result = mockMvc.perform(get("/inventory/stream")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].quantity").value(100));
+    }
+
+    @Test
+    public void shouldStreamInventoriesAsJsonWithoutAcceptHeader() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 100));
+
+        MvcResult result = mockMvc.perform(get("/inventory/stream")
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    public void shouldStreamInventoriesAsNdjsonForFormatParameter() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 100));
+        inventoryRepository.save(new Inventory(null, 2L, 200));
+
+        MvcResult result = mockMvc.perform(get("/inventory/stream")
+                        .param("format", "ndjson")
+                        .accept(MediaType.ALL)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, body.trim().split("\n").length);
+    }
+
     @Test
     public void shouldProcessPurchaseSuccessfully() throws Exception {
         Inventory inventory = new Inventory();
@@ -162,4 +283,123 @@ class InventoryIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotOversellUnderConcurrentPurchases() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+
+        PurchaseRequest request = new PurchaseRequest(1L, 1);
+        String body = objectMapper.writeValueAsString(request);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(executor.submit(() -> mockMvc.perform(post("/inventory/purchases")
+                            .header(API_KEY_HEADER, TEST_API_KEY)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getStatus()));
+        }
+        executor.shutdown();
+
+        int successful = 0;
+        for (Future<Integer> result : results) {
+            if (result.get() == 201) {
+                successful++;
+            }
+        }
+
+        assertEquals(10, successful);
+        assertEquals(0, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void shouldUpdateExistingRowOnRepeatedUpsert() throws Exception {
+        InventoryRequest request = new InventoryRequest();
+        request.setProductId(1L);
+        for (int quantity : new int[]{40, 15}) {
+            request.setQuantity(quantity);
+            mockMvc.perform(post("/inventory")
+                            .header(API_KEY_HEADER, TEST_API_KEY)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.data.quantity").value(quantity));
+        }
+
+        assertEquals(1, inventoryRepository.count());
+        assertEquals(15, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void shouldApplyRetriedPurchaseOnlyOnce() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+
+        String body = objectMapper.writeValueAsString(new PurchaseRequest(1L, 3));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> mockMvc.perform(post("/inventory/purchases")
+                            .header(API_KEY_HEADER, TEST_API_KEY)
+                            .header("Idempotency-Key", "order-42")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getStatus()));
+        }
+        executor.shutdown();
+        for (Future<Integer> result : results) {
+            assertEquals(201, result.get());
+        }
+
+        mockMvc.perform(post("/inventory/purchases")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PurchaseRequest(1L, 4))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0].title").value("Idempotency Error"));
+
+        assertEquals(7, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void shouldProcessBatchPurchaseSuccessfully() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+        inventoryRepository.save(new Inventory(null, 2L, 5));
+
+        BatchPurchaseRequest request = new BatchPurchaseRequest(List.of(
+                new PurchaseRequest(1L, 3),
+                new PurchaseRequest(2L, 5),
+                new PurchaseRequest(1L, 2)));
+
+        mockMvc.perform(post("/inventory/purchases/batch")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[1].productId").value(2L))
+                .andExpect(jsonPath("$.data[1].purchasedQuantity").value(5));
+
+        assertEquals(5, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        assertEquals(0, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void shouldRollBackWholeBatchWhenAnyLineIsRejected() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+        inventoryRepository.save(new Inventory(null, 2L, 1));
+
+        BatchPurchaseRequest request = new BatchPurchaseRequest(List.of(
+                new PurchaseRequest(1L, 3),
+                new PurchaseRequest(2L, 2)));
+
+        mockMvc.perform(post("/inventory/purchases/batch")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(10, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        assertEquals(1, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+    }
+}
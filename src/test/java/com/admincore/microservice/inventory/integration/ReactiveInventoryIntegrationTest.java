@@ -0,0 +1,150 @@
+package com.admincore.microservice.inventory.integration;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = {InventoryServiceApplication.class, ReactiveInventoryIntegrationTest.TestConfig.class})
+@ActiveProfiles("test")
+@AutoConfigureWebMvc
+class ReactiveInventoryIntegrationTest {
+
+    private static final String API_KEY_HEADER = "x-api-key";
+    private static final String TEST_API_KEY = "TEST_INVENTORY_KEY";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        inventoryRepository.deleteAll();
+        clearInvocations(productServiceClient);
+        stockCache.clear();
+        when(productServiceClient.getProductInfoAsync(anyLong())).thenAnswer(invocation ->
+                Mono.just(new ProductInfo(invocation.getArgument(0), true, "Test Product", null, null)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inventoryRepository.deleteAll();
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ProductServiceClient productServiceClient() {
+            return mock(ProductServiceClient.class);
+        }
+    }
+
+    @Test
+    public void shouldProcessPurchaseWithoutBlockingRequestThread() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+
+        MvcResult result = mockMvc.perform(post("/reactive/inventory/purchases")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PurchaseRequest(1L, 4))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.productName").value("Test Product"))
+                .andExpect(jsonPath("$.data.purchasedQuantity").value(4));
+
+        assertEquals(6, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        verify(productServiceClient, never()).getProductInfo(anyLong());
+    }
+
+    @Test
+    public void shouldReplayPurchaseRetriedWithSameIdempotencyKey() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+        String body = objectMapper.writeValueAsString(new PurchaseRequest(1L, 4));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            MvcResult result = mockMvc.perform(post("/reactive/inventory/purchases")
+                            .header(API_KEY_HEADER, TEST_API_KEY)
+                            .header("Idempotency-Key", "reactive-purchase-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.data.purchasedQuantity").value(4));
+        }
+
+        assertEquals(6, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        verify(productServiceClient, times(1)).getProductInfoAsync(1L);
+    }
+
+    @Test
+    public void shouldReturn400ForInsufficientInventory() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 2));
+
+        MvcResult result = mockMvc.perform(post("/reactive/inventory/purchases")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PurchaseRequest(1L, 5))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].title").value("Insufficient Inventory"));
+    }
+
+    @Test
+    public void shouldReturn404ForMissingInventory() throws Exception {
+        MvcResult result = mockMvc.perform(get("/reactive/inventory/999")
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+}
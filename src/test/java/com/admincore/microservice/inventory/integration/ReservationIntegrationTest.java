@@ -0,0 +1,195 @@
+package com.admincore.microservice.inventory.integration;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.dto.ReservationRequest;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.model.ReservationStatus;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.repository.ReservationRepository;
+import com.admincore.microservice.inventory.reservation.ReservationSweeper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = {InventoryServiceApplication.class, ReservationIntegrationTest.TestConfig.class},
+        properties = "inventory.reservations.sweeper.interval=1h")
+@ActiveProfiles("test")
+@AutoConfigureWebMvc
+class ReservationIntegrationTest {
+
+    private static final String API_KEY_HEADER = "x-api-key";
+    private static final String TEST_API_KEY = "TEST_INVENTORY_KEY";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationSweeper reservationSweeper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        reservationRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        stockCache.clear();
+        when(productServiceClient.getProductInfo(anyLong())).thenAnswer(invocation ->
+                new ProductInfo(invocation.getArgument(0), true, "Test Product", null, null));
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        reservationRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ProductServiceClient productServiceClient() {
+            return mock(ProductServiceClient.class);
+        }
+    }
+
+    @Test
+    public void shouldHoldReservedStockOutOfAvailable() throws Exception {
+        reserve(4, null);
+
+        mockMvc.perform(get("/inventory/1")
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantity").value(10))
+                .andExpect(jsonPath("$.data.reserved").value(4))
+                .andExpect(jsonPath("$.data.available").value(6));
+
+        mockMvc.perform(post("/inventory/purchases")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PurchaseRequest(1L, 7))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].detail").value("Insufficient inventory for product ID: 1. Available: 6, Requested: 7"));
+
+        mockMvc.perform(post("/inventory/reservations")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(1L, 7, null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldSellReservedStockOnConfirm() throws Exception {
+        long reservationId = reserve(4, null);
+
+        mockMvc.perform(post("/inventory/reservations/{id}/confirm", reservationId)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("CONFIRMED"));
+
+        Inventory inventory = inventoryRepository.findByProductId(1L).orElseThrow();
+        assertEquals(6, inventory.getQuantity());
+        assertEquals(0, inventory.getReserved());
+
+        mockMvc.perform(post("/inventory/reservations/{id}/confirm", reservationId)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/inventory/reservations/{id}/release", reservationId)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void shouldReturnStockOnRelease() throws Exception {
+        long reservationId = reserve(4, null);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/inventory/reservations/{id}/release", reservationId)
+                            .header(API_KEY_HEADER, TEST_API_KEY))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.status").value("RELEASED"));
+        }
+
+        Inventory inventory = inventoryRepository.findByProductId(1L).orElseThrow();
+        assertEquals(10, inventory.getQuantity());
+        assertEquals(0, inventory.getReserved());
+    }
+
+    @Test
+    public void shouldExpireOverdueReservationsInBatches() throws Exception {
+        long first = reserve(2, 60L);
+        long second = reserve(3, 60L);
+        long kept = reserve(1, 3600L);
+
+        assertEquals(2, reservationSweeper.sweep(Instant.now().plus(Duration.ofMinutes(5))));
+
+        assertEquals(ReservationStatus.EXPIRED, reservationRepository.findById(first).orElseThrow().getStatus());
+        assertEquals(ReservationStatus.EXPIRED, reservationRepository.findById(second).orElseThrow().getStatus());
+        assertEquals(ReservationStatus.ACTIVE, reservationRepository.findById(kept).orElseThrow().getStatus());
+        assertEquals(1, inventoryRepository.findByProductId(1L).orElseThrow().getReserved());
+
+        mockMvc.perform(post("/inventory/reservations/{id}/confirm", first)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void shouldReturn404ForUnknownReservation() throws Exception {
+        mockMvc.perform(post("/inventory/reservations/{id}/confirm", 999L)
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errors[0].title").value("Reservation Not Found"));
+    }
+
+    private long reserve(int quantity, Long ttlSeconds) throws Exception {
+        MvcResult result = mockMvc.perform(post("/inventory/reservations")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(1L, quantity, ttlSeconds))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.status").value("ACTIVE"))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).path("data").path("id").asLong();
+    }
+}
@@ -0,0 +1,188 @@
+package com.admincore.microservice.inventory.integration;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.repository.StockMovementRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Imports stock on a SQLite file with the dialect of the {@code local} profile, where the
+ * batched upserts resolve existing rows through the {@code product_id} unique index.
+ */
+@SpringBootTest(classes = {InventoryServiceApplication.class, SqliteInventoryImportIntegrationTest.TestConfig.class},
+        properties = {
+                "spring.datasource.driver-class-name=org.sqlite.JDBC",
+                "spring.jpa.database-platform=com.admincore.microservice.inventory.config.SQLiteDialect",
+                "spring.jpa.properties.hibernate.jdbc.use_get_generated_keys=false",
+                "inventory.reservations.sweeper.enabled=false",
+                "inventory.import.batch-size=2"
+        })
+@ActiveProfiles("test")
+@AutoConfigureWebMvc
+class SqliteInventoryImportIntegrationTest {
+
+    private static final String API_KEY_HEADER = "x-api-key";
+    private static final String TEST_API_KEY = "TEST_INVENTORY_KEY";
+
+    private static Path dataDir;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @BeforeAll
+    static void createDataDir() throws IOException {
+        dataDir = Files.createTempDirectory("sqlite-import");
+    }
+
+    @AfterAll
+    static void deleteDataDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @DynamicPropertySource
+    static void sqliteProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("inventory.db"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        stockMovementRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        when(productServiceClient.getProductInfos(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().distinct().collect(Collectors.toMap(id -> id,
+                    id -> new ProductInfo(id, true, "Test Product", null, null)));
+        });
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ProductServiceClient productServiceClient() {
+            return mock(ProductServiceClient.class);
+        }
+    }
+
+    @Test
+    void shouldImportCsvOverExistingRows() throws Exception {
+        Inventory existing = inventoryRepository.save(new Inventory(null, 1L, 10, 4));
+
+        JsonNode summary = lastEvent(importStock("text/csv", """
+                productId,quantity
+                1,25
+                2,7
+                3,0
+                """));
+
+        assertEquals("COMPLETED", summary.get("type").asText());
+        assertEquals(3, summary.get("imported").asLong());
+        assertEquals(0, summary.get("failed").asLong());
+
+        Inventory updated = inventoryRepository.findByProductId(1L).orElseThrow();
+        assertEquals(existing.getId(), updated.getId());
+        assertEquals(25, updated.getQuantity());
+        assertEquals(4, updated.getReserved());
+        assertEquals(7, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+        assertEquals(3, inventoryRepository.count());
+    }
+
+    @Test
+    void shouldImportNdjsonWithRepeatedProducts() throws Exception {
+        JsonNode summary = lastEvent(importStock(MediaType.APPLICATION_NDJSON_VALUE, """
+                {"productId": 1, "quantity": 4}
+                {"productId": 2, "quantity": 3}
+                {"productId": 1, "quantity": 6}
+                """));
+
+        assertEquals("COMPLETED", summary.get("type").asText());
+        assertEquals(3, summary.get("imported").asLong());
+        assertEquals(0, summary.get("failed").asLong());
+
+        assertEquals(6, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        assertEquals(3, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+        assertEquals(2, inventoryRepository.count());
+    }
+
+    private List<JsonNode> importStock(String contentType, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/inventory/import")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(contentType)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String response = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : response.trim().split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+
+    private static JsonNode lastEvent(List<JsonNode> events) {
+        return events.get(events.size() - 1);
+    }
+}
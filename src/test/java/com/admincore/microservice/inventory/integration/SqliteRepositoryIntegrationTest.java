@@ -0,0 +1,158 @@
+package com.admincore.microservice.inventory.integration;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.model.MovementType;
+import com.admincore.microservice.inventory.model.Reservation;
+import com.admincore.microservice.inventory.model.ReservationStatus;
+import com.admincore.microservice.inventory.model.StockMovement;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.repository.ReservationRepository;
+import com.admincore.microservice.inventory.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the repository queries on a SQLite file with the dialect of the {@code local} profile,
+ * where {@link Limit} must be rendered as {@code limit ? offset ?}. The file starts with the
+ * {@code inventory} table earlier versions of that dialect left behind, without the unique
+ * index on {@code product_id} the upserts resolve their conflicts on.
+ */
+@SpringBootTest(classes = InventoryServiceApplication.class,
+        properties = {
+                "spring.datasource.driver-class-name=org.sqlite.JDBC",
+                "spring.jpa.database-platform=com.admincore.microservice.inventory.config.SQLiteDialect",
+                "spring.jpa.properties.hibernate.jdbc.use_get_generated_keys=false",
+                "spring.jpa.hibernate.ddl-auto=update",
+                "inventory.reservations.sweeper.enabled=false"
+        })
+@ActiveProfiles("test")
+class SqliteRepositoryIntegrationTest {
+
+    private static Path dataDir;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @BeforeAll
+    static void createDataDir() throws IOException, SQLException {
+        dataDir = Files.createTempDirectory("sqlite-repositories");
+        try (Connection connection = DriverManager.getConnection(url());
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table inventory (id integer, product_id bigint, quantity integer, "
+                    + "reserved integer default 0 not null, primary key (id))");
+        }
+    }
+
+    @AfterAll
+    static void deleteDataDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @DynamicPropertySource
+    static void sqliteProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", SqliteRepositoryIntegrationTest::url);
+    }
+
+    private static String url() {
+        return "jdbc:sqlite:" + dataDir.resolve("inventory.db");
+    }
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    void shouldPageInventoriesByIdCursor() {
+        for (long productId = 1; productId <= 5; productId++) {
+            inventoryRepository.save(new Inventory(null, productId, 10));
+        }
+
+        List<Inventory> first = inventoryRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        List<Inventory> second = inventoryRepository.findByIdGreaterThanOrderByIdAsc(first.get(1).getId(), Limit.of(2));
+
+        assertEquals(List.of(1L, 2L), first.stream().map(Inventory::getProductId).toList());
+        assertEquals(List.of(3L, 4L), second.stream().map(Inventory::getProductId).toList());
+    }
+
+    @Test
+    void shouldUpsertInventoryOnProductId() {
+        Inventory created = inventoryRepository.upsertQuantity(1L, 10);
+        inventoryRepository.save(new Inventory(created.getId(), 1L, 10, 3));
+
+        Inventory updated = inventoryRepository.upsertQuantity(1L, 25);
+        inventoryRepository.upsertQuantities(List.of(new InventoryRequest(1L, 30), new InventoryRequest(2L, 5)));
+
+        assertEquals(created.getId(), updated.getId());
+        assertEquals(25, updated.getQuantity());
+        assertEquals(3, updated.getReserved());
+        assertEquals(2, inventoryRepository.count());
+        assertEquals(30, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        assertEquals(5, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void shouldLimitExpiredReservations() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 3; i++) {
+            reservationRepository.save(new Reservation(null, 1L, 1, ReservationStatus.ACTIVE,
+                    now.minus(Duration.ofMinutes(10)), now.minusSeconds(i + 1)));
+        }
+
+        List<Reservation> due = reservationRepository.findByStatusAndExpiresAtLessThanEqualOrderByExpiresAtAsc(
+                ReservationStatus.ACTIVE, now, Limit.of(2));
+
+        assertEquals(2, due.size());
+        assertEquals(now.minusSeconds(3), due.get(0).getExpiresAt());
+    }
+
+    @Test
+    void shouldPageMovementHistory() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 3; i++) {
+            stockMovementRepository.save(new StockMovement(null, 1L, -1, MovementType.PURCHASE, now));
+        }
+
+        List<StockMovement> page = stockMovementRepository.findHistory(1L, now.minusSeconds(1), now.plusSeconds(1), 0L, Limit.of(2));
+
+        assertEquals(2, page.size());
+    }
+}
@@ -0,0 +1,237 @@
+package com.admincore.microservice.inventory.integration;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.BatchPurchaseRequest;
+import com.admincore.microservice.inventory.dto.InventoryRequest;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.model.MovementType;
+import com.admincore.microservice.inventory.model.StockMovement;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.admincore.microservice.inventory.repository.StockMovementRepository;
+import com.admincore.microservice.inventory.repository.StockSnapshotRepository;
+import com.admincore.microservice.inventory.service.StockLedgerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = {InventoryServiceApplication.class, StockLedgerIntegrationTest.TestConfig.class})
+@ActiveProfiles("test")
+@AutoConfigureWebMvc
+class StockLedgerIntegrationTest {
+
+    private static final String API_KEY_HEADER = "x-api-key";
+    private static final String TEST_API_KEY = "TEST_INVENTORY_KEY";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        stockSnapshotRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        stockCache.clear();
+        when(productServiceClient.getProductInfo(anyLong())).thenAnswer(invocation ->
+                new ProductInfo(invocation.getArgument(0), true, "Test Product", null, null));
+        when(productServiceClient.getProductInfos(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().distinct().collect(Collectors.toMap(id -> id,
+                    id -> new ProductInfo(id, true, "Test Product", null, null)));
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stockSnapshotRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ProductServiceClient productServiceClient() {
+            return mock(ProductServiceClient.class);
+        }
+    }
+
+    @Test
+    public void shouldRecordEveryStockChangeInTheLedger() throws Exception {
+        upsert(1L, 10);
+        upsert(1L, 12);
+        purchase(1L, 3);
+        purchaseBatch(new PurchaseRequest(1L, 1), new PurchaseRequest(1L, 2));
+
+        mockMvc.perform(post("/inventory/purchases")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PurchaseRequest(1L, 50))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/inventory/1/movements")
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(5))
+                .andExpect(jsonPath("$.data[0].delta").value(10))
+                .andExpect(jsonPath("$.data[0].type").value("STOCK_SET"))
+                .andExpect(jsonPath("$.data[1].delta").value(2))
+                .andExpect(jsonPath("$.data[2].delta").value(-3))
+                .andExpect(jsonPath("$.data[2].type").value("PURCHASE"))
+                .andExpect(jsonPath("$.data[3].delta").value(-1))
+                .andExpect(jsonPath("$.data[4].delta").value(-2));
+    }
+
+    @Test
+    public void shouldPageMovementsWithinATimeRange() throws Exception {
+        Instant start = Instant.now().minusSeconds(60);
+        stockMovementRepository.saveAll(List.of(
+                new StockMovement(null, 1L, 10, MovementType.STOCK_SET, start),
+                new StockMovement(null, 1L, -1, MovementType.PURCHASE, start.plusSeconds(10)),
+                new StockMovement(null, 2L, -1, MovementType.PURCHASE, start.plusSeconds(15)),
+                new StockMovement(null, 1L, -2, MovementType.PURCHASE, start.plusSeconds(20)),
+                new StockMovement(null, 1L, -3, MovementType.PURCHASE, start.plusSeconds(30))));
+
+        mockMvc.perform(get("/inventory/1/movements")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .param("from", start.plusSeconds(5).toString())
+                        .param("to", start.plusSeconds(30).toString())
+                        .param("page[size]", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].delta").value(-1))
+                .andExpect(jsonPath("$.links.next").value(containsString("page%5Bafter%5D=")))
+                .andExpect(jsonPath("$.links.next").value(containsString("from=")));
+
+        long afterId = stockMovementRepository.findAll().stream()
+                .filter(movement -> movement.getProductId() == 1L && movement.getDelta() == -1)
+                .findFirst().orElseThrow().getId();
+        mockMvc.perform(get("/inventory/1/movements")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .param("from", start.plusSeconds(5).toString())
+                        .param("to", start.plusSeconds(30).toString())
+                        .param("page[size]", "1")
+                        .param("page[after]", String.valueOf(afterId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].delta").value(-2))
+                .andExpect(jsonPath("$.links.next").doesNotExist());
+    }
+
+    @Test
+    public void shouldRebuildStockFromSnapshotAndLaterMovements() throws Exception {
+        upsert(1L, 20);
+        upsert(2L, 5);
+        purchase(1L, 4);
+
+        assertEquals(2, stockLedgerService.snapshot(Instant.now()));
+        assertEquals(0, stockLedgerService.snapshot(Instant.now()));
+
+        purchase(1L, 6);
+        upsert(3L, 7);
+        assertEquals(2, stockLedgerService.snapshot(Instant.now()));
+        purchase(1L, 1);
+
+        mockMvc.perform(get("/inventory/1/movements/balance")
+                        .header(API_KEY_HEADER, TEST_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quantity").value(9))
+                .andExpect(jsonPath("$.data.snapshotQuantity").value(10));
+
+        assertEquals(inventoryRepository.findByProductId(1L).orElseThrow().getQuantity(),
+                stockLedgerService.rebuild(1L).getQuantity());
+        assertEquals(5, stockLedgerService.rebuild(2L).getQuantity());
+        assertEquals(7, stockLedgerService.rebuild(3L).getQuantity());
+    }
+
+    @Test
+    public void shouldBackfillOpeningMovementsForRowsWrittenBeforeTheLedger() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 12));
+        inventoryRepository.save(new Inventory(null, 2L, 0));
+        upsert(3L, 4);
+
+        assertEquals(1, stockLedgerService.backfillOpeningBalances(Instant.now()));
+        assertEquals(0, stockLedgerService.backfillOpeningBalances(Instant.now()));
+        purchase(1L, 2);
+
+        assertEquals(10, stockLedgerService.rebuild(1L).getQuantity());
+        assertEquals(0, stockLedgerService.rebuild(2L).getQuantity());
+        assertEquals(4, stockLedgerService.rebuild(3L).getQuantity());
+    }
+
+    private void upsert(Long productId, int quantity) throws Exception {
+        mockMvc.perform(post("/inventory")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new InventoryRequest(productId, quantity))))
+                .andExpect(status().isCreated());
+    }
+
+    private void purchase(Long productId, int quantity) throws Exception {
+        mockMvc.perform(post("/inventory/purchases")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PurchaseRequest(productId, quantity))))
+                .andExpect(status().isCreated());
+    }
+
+    private void purchaseBatch(PurchaseRequest... lines) throws Exception {
+        mockMvc.perform(post("/inventory/purchases/batch")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchPurchaseRequest(List.of(lines)))))
+                .andExpect(status().isCreated());
+    }
+}
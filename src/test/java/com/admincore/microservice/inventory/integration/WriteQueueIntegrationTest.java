@@ -0,0 +1,152 @@
+package com.admincore.microservice.inventory.integration;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
+import com.admincore.microservice.inventory.client.ProductServiceClient;
+import com.admincore.microservice.inventory.dto.BatchPurchaseRequest;
+import com.admincore.microservice.inventory.dto.PurchaseRequest;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = {InventoryServiceApplication.class, WriteQueueIntegrationTest.TestConfig.class},
+        properties = "inventory.write-queue.enabled=true")
+@ActiveProfiles("test")
+@AutoConfigureWebMvc
+class WriteQueueIntegrationTest {
+
+    private static final String API_KEY_HEADER = "x-api-key";
+    private static final String TEST_API_KEY = "TEST_INVENTORY_KEY";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private StockCache stockCache;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        inventoryRepository.deleteAll();
+        stockCache.clear();
+        when(productServiceClient.getProductInfo(anyLong())).thenAnswer(invocation ->
+                new ProductInfo(invocation.getArgument(0), true, "Test Product", null, null));
+        when(productServiceClient.getProductInfos(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().distinct().collect(Collectors.toMap(id -> id,
+                    id -> new ProductInfo(id, true, "Test Product", null, null)));
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inventoryRepository.deleteAll();
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ProductServiceClient productServiceClient() {
+            return mock(ProductServiceClient.class);
+        }
+    }
+
+    @Test
+    public void shouldNotOversellWhenPurchasesAreGroupCommitted() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+
+        String body = objectMapper.writeValueAsString(new PurchaseRequest(1L, 1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(executor.submit(() -> mockMvc.perform(post("/inventory/purchases")
+                            .header(API_KEY_HEADER, TEST_API_KEY)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getStatus()));
+        }
+        executor.shutdown();
+
+        int successful = 0;
+        int rejected = 0;
+        for (Future<Integer> result : results) {
+            int status = result.get();
+            if (status == 201) {
+                successful++;
+            } else if (status == 400) {
+                rejected++;
+            }
+        }
+
+        assertEquals(10, successful);
+        assertEquals(10, rejected);
+        assertEquals(0, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void shouldRollBackOnlyTheRejectedBatchPurchase() throws Exception {
+        inventoryRepository.save(new Inventory(null, 1L, 10));
+        inventoryRepository.save(new Inventory(null, 2L, 1));
+
+        BatchPurchaseRequest request = new BatchPurchaseRequest(List.of(
+                new PurchaseRequest(1L, 3),
+                new PurchaseRequest(2L, 5)));
+
+        mockMvc.perform(post("/inventory/purchases/batch")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].title").value("Insufficient Inventory"));
+
+        mockMvc.perform(post("/inventory/purchases")
+                        .header(API_KEY_HEADER, TEST_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PurchaseRequest(1L, 2))))
+                .andExpect(status().isCreated());
+
+        assertEquals(8, inventoryRepository.findByProductId(1L).orElseThrow().getQuantity());
+        assertEquals(1, inventoryRepository.findByProductId(2L).orElseThrow().getQuantity());
+    }
+}
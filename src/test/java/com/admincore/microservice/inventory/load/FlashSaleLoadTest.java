@@ -0,0 +1,183 @@
+package com.admincore.microservice.inventory.load;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Flash sale against a SQLite file: thousands of concurrent {@code POST /inventory/purchases}
+ * over real HTTP, all aimed at a few hot products that sell out part way through.
+ * <p>
+ * Reports throughput, latency percentiles and how requests ended (sold, out of stock,
+ * {@code SQLITE_BUSY}, other errors), then fails if any product oversold: for every
+ * product, the final stock plus the units of the successful purchases must equal the
+ * initial stock. This is the acceptance check for changes to the purchase path.
+ * The volume can be raised with {@code -DflashSale.purchases} and {@code -DflashSale.clients}.
+ */
+@Tag("load")
+@SpringBootTest(classes = InventoryServiceApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.mvc.log-request-details=false",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.web=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.com.admincore.microservice=ERROR"
+        })
+@ActiveProfiles("test")
+class FlashSaleLoadTest {
+
+    private static final int HOT_PRODUCTS = 3;
+    private static final int INITIAL_STOCK = 500;
+    private static final int MAX_UNITS_PER_PURCHASE = 3;
+    private static final int PURCHASES = Integer.getInteger("flashSale.purchases", 5_000);
+    private static final int CLIENTS = Integer.getInteger("flashSale.clients", 64);
+
+    private static MockWebServer productService;
+    private static Path dataDir;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @BeforeAll
+    static void startProductService() throws IOException {
+        dataDir = Files.createTempDirectory("flash-sale");
+        productService = new MockWebServer();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"data\": {\"id\": \"1\", \"attributes\": {\"name\": \"Flash Sale Product\"}}}");
+            }
+        });
+        productService.start();
+    }
+
+    @AfterAll
+    static void stopProductService() throws IOException {
+        productService.shutdown();
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @DynamicPropertySource
+    static void flashSaleProperties(DynamicPropertyRegistry registry) {
+        registry.add("product.service.url", () -> productService.url("/products").toString());
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("inventory.db"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.sqlite.JDBC");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.community.dialect.SQLiteDialect");
+    }
+
+    @Test
+    void hotProductsNeverOversell() throws Exception {
+        inventoryRepository.deleteAll();
+        for (long productId = 1; productId <= HOT_PRODUCTS; productId++) {
+            inventoryRepository.save(new Inventory(null, productId, INITIAL_STOCK));
+        }
+
+        HttpClient http = HttpClient.newHttpClient();
+        URI purchases = URI.create("http://localhost:" + port + "/inventory/purchases");
+
+        AtomicInteger remaining = new AtomicInteger(PURCHASES);
+        AtomicIntegerArray soldUnits = new AtomicIntegerArray(HOT_PRODUCTS + 1);
+        LoadReport report = new LoadReport("flash sale on " + HOT_PRODUCTS + " products", PURCHASES, CLIENTS,
+                "sold", "out of stock", "SQLITE_BUSY", "other errors");
+
+        report.start();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                workers.add(clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (remaining.getAndDecrement() > 0) {
+                        int productId = random.nextInt(1, HOT_PRODUCTS + 1);
+                        int units = random.nextInt(1, MAX_UNITS_PER_PURCHASE + 1);
+                        HttpRequest purchase = HttpRequest.newBuilder(purchases)
+                                .header("x-api-key", "TEST_INVENTORY_KEY")
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"productId\": " + productId + ", \"quantity\": " + units + "}"))
+                                .build();
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = http.send(purchase, HttpResponse.BodyHandlers.ofString());
+                        long latency = System.nanoTime() - sent;
+                        if (response.statusCode() == 201) {
+                            soldUnits.addAndGet(productId, units);
+                            report.record(latency, "sold");
+                        } else if (response.body().contains("Insufficient Inventory")) {
+                            report.record(latency, "out of stock");
+                        } else if (response.body().contains("SQLITE_BUSY") || response.body().contains("database is locked")) {
+                            report.record(latency, "SQLITE_BUSY");
+                        } else {
+                            report.record(latency, "other errors");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        report.stop();
+        report.print();
+
+        int totalSold = 0;
+        for (long productId = 1; productId <= HOT_PRODUCTS; productId++) {
+            int finalStock = inventoryRepository.findByProductId(productId).orElseThrow().getQuantity();
+            int unitsSold = soldUnits.get((int) productId);
+            System.out.printf("  product %d: initial %d, sold %d, final %d%n", productId, INITIAL_STOCK, unitsSold, finalStock);
+            assertTrue(finalStock >= 0, "Stock of product " + productId + " went negative: " + finalStock);
+            assertEquals(INITIAL_STOCK, finalStock + unitsSold, "Product " + productId + " oversold or lost units");
+            totalSold += unitsSold;
+        }
+        assertTrue(totalSold > 0, "No purchase succeeded");
+    }
+}
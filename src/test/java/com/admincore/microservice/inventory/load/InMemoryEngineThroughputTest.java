@@ -0,0 +1,83 @@
+package com.admincore.microservice.inventory.load;
+
+import com.admincore.microservice.inventory.engine.InMemoryInventoryEngine;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures journaled decrements per second of {@link InMemoryInventoryEngine} across
+ * many products, with the background flush to the database stubbed out.
+ */
+@Tag("load")
+class InMemoryEngineThroughputTest {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DECREMENTS_PER_THREAD = 1_000_000;
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void measureDecrementThroughput() throws Exception {
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Inventory> action = invocation.getArgument(0);
+            for (long productId = 1; productId <= PRODUCTS; productId++) {
+                action.accept(new Inventory(productId, productId, Integer.MAX_VALUE));
+            }
+            return null;
+        }).when(inventoryRepository).forEachInventory(any());
+
+        InMemoryInventoryEngine engine = new InMemoryInventoryEngine(inventoryRepository, mock(JdbcTemplate.class),
+                mock(TransactionTemplate.class), journalDirectory, 64 * 1024 * 1024, 256, Duration.ofSeconds(1));
+        engine.start();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int applied = 0;
+                    for (int i = 0; i < DECREMENTS_PER_THREAD; i++) {
+                        if (engine.decrement(random.nextInt(1, PRODUCTS + 1), 1) >= 0) {
+                            applied++;
+                        }
+                    }
+                    return applied;
+                }));
+            }
+            int applied = 0;
+            for (Future<Integer> result : results) {
+                applied += result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("in-memory engine: %d threads, %.0f decrements/s%n", THREADS, applied / seconds);
+            assertEquals(THREADS * DECREMENTS_PER_THREAD, applied);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
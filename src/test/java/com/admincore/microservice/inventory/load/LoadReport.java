@@ -0,0 +1,76 @@
+package com.admincore.microservice.inventory.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects per-request latencies and outcomes of an HTTP load test and prints them in the
+ * common format of the load tests: throughput, latency percentiles and the share of each
+ * outcome.
+ */
+final class LoadReport {
+
+    private final String name;
+    private final int clients;
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final Map<String, AtomicInteger> outcomes = new LinkedHashMap<>();
+    private long start;
+    private long elapsed;
+
+    LoadReport(String name, int requests, int clients, String... outcomes) {
+        this.name = name;
+        this.clients = clients;
+        this.latencies = new long[requests];
+        for (String outcome : outcomes) {
+            this.outcomes.put(outcome, new AtomicInteger());
+        }
+    }
+
+    void start() {
+        start = System.nanoTime();
+    }
+
+    void stop() {
+        elapsed = System.nanoTime() - start;
+    }
+
+    void record(long latencyNanos, String outcome) {
+        latencies[recorded.getAndIncrement()] = latencyNanos;
+        outcomes.get(outcome).incrementAndGet();
+    }
+
+    int count(String outcome) {
+        return outcomes.get(outcome).get();
+    }
+
+    double throughput() {
+        return recorded.get() / (elapsed / 1e9);
+    }
+
+    void print() {
+        int requests = recorded.get();
+        long[] sorted = Arrays.copyOf(latencies, requests);
+        Arrays.sort(sorted);
+        System.out.printf("%s: %d requests from %d clients in %.2fs -> %.1f req/s%n",
+                name, requests, clients, elapsed / 1e9, throughput());
+        System.out.printf("  latency p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.95),
+                percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+        StringBuilder line = new StringBuilder(" ");
+        outcomes.forEach((outcome, count) -> line.append(String.format(" %s %d (%.2f%%),",
+                outcome, count.get(), requests == 0 ? 0.0 : 100.0 * count.get() / requests)));
+        line.setLength(line.length() - 1);
+        System.out.println(line);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,150 @@
+package com.admincore.microservice.inventory.load;
+
+import com.admincore.microservice.inventory.config.SqliteConnectionPools;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares purchase throughput and read latency of the default SQLite setup
+ * (rollback journal, a new connection per operation) against the
+ * {@code sqlite-tuned} profile (WAL, one pooled writer, pooled readers).
+ */
+@Tag("load")
+class SqliteTuningBenchmarkTest {
+
+    private static final int PRODUCTS = 100;
+    private static final int WRITERS = 8;
+    private static final int READERS = 8;
+    private static final int PURCHASES_PER_WRITER = 250;
+    private static final int READS_PER_READER = 2_000;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void compareDefaultAndTunedSqlite() throws Exception {
+        String defaultUrl = "jdbc:sqlite:" + dataDir.resolve("default.db");
+        DriverManagerDataSource perOperation = new DriverManagerDataSource(defaultUrl);
+        perOperation.setDriverClassName("org.sqlite.JDBC");
+        seed(perOperation);
+        Result baseline = run(perOperation, perOperation);
+
+        String tunedUrl = "jdbc:sqlite:" + dataDir.resolve("tuned.db");
+        try (SqliteConnectionPools pools = new SqliteConnectionPools(tunedUrl, READERS, Duration.ofSeconds(5),
+                20_000, 268_435_456L, "NORMAL", Duration.ofSeconds(30))) {
+            seed(pools.writer());
+            Result tuned = run(pools.writer(), pools.reader());
+
+            print("default", baseline);
+            print("tuned", tuned);
+
+            assertTrue(tuned.failedPurchases() == 0, "tuned setup failed " + tuned.failedPurchases() + " purchases");
+        }
+    }
+
+    private void print(String name, Result result) {
+        System.out.printf("sqlite %s: %.0f purchases/s (%d failed), reads p50 %.0f us p99 %.0f us (%d failed)%n",
+                name, result.purchasesPerSecond(), result.failedPurchases(),
+                result.readP50Micros(), result.readP99Micros(), result.failedReads());
+    }
+
+    private void seed(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE inventory (id integer PRIMARY KEY, product_id bigint UNIQUE, quantity integer)");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO inventory (product_id, quantity) VALUES (?, ?)")) {
+                for (int productId = 1; productId <= PRODUCTS; productId++) {
+                    insert.setLong(1, productId);
+                    insert.setInt(2, 1_000_000);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private Result run(DataSource writes, DataSource reads) throws Exception {
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger failedReads = new AtomicInteger();
+        long[][] readLatencies = new long[READERS][READS_PER_READER];
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int w = 0; w < WRITERS; w++) {
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < PURCHASES_PER_WRITER; i++) {
+                        try (Connection connection = writes.getConnection();
+                             PreparedStatement update = connection.prepareStatement(
+                                     "UPDATE inventory SET quantity = quantity - ? WHERE product_id = ? AND quantity >= ?")) {
+                            update.setInt(1, 1);
+                            update.setLong(2, ThreadLocalRandom.current().nextInt(1, PRODUCTS + 1));
+                            update.setInt(3, 1);
+                            update.executeUpdate();
+                        } catch (SQLException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int r = 0; r < READERS; r++) {
+                long[] latencies = readLatencies[r];
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < READS_PER_READER; i++) {
+                        long readStart = System.nanoTime();
+                        try (Connection connection = reads.getConnection();
+                             PreparedStatement select = connection.prepareStatement(
+                                     "SELECT id, product_id, quantity FROM inventory WHERE product_id = ?")) {
+                            select.setLong(1, ThreadLocalRandom.current().nextInt(1, PRODUCTS + 1));
+                            try (ResultSet rs = select.executeQuery()) {
+                                rs.next();
+                            }
+                        } catch (SQLException e) {
+                            failedReads.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - readStart;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long[] all = Arrays.stream(readLatencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(
+                    (WRITERS * PURCHASES_PER_WRITER - failed.get()) / seconds,
+                    failed.get(),
+                    failedReads.get(),
+                    all[all.length / 2] / 1_000.0,
+                    all[(int) (all.length * 0.99)] / 1_000.0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Result(double purchasesPerSecond, int failedPurchases, int failedReads, double readP50Micros, double readP99Micros) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.admincore.microservice.inventory.load;
+
+import com.admincore.microservice.inventory.InventoryServiceApplication;
+import com.admincore.microservice.inventory.config.PinningGuardDataSource;
+import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.repository.InventoryRepository;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Purchases over real HTTP against a SQLite file with Tomcat limited to a few platform
+ * threads and a slow Product Service stub. With virtual threads, far more requests wait on
+ * the Product Service at once than there are platform threads, while
+ * {@link PinningGuardDataSource} keeps the SQLite driver, which pins its carrier thread,
+ * from occupying every carrier.
+ */
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(classes = InventoryServiceApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=" + VirtualThreadPurchaseLoadTest.PLATFORM_THREADS,
+                "product.service.cache.enabled=false",
+                "spring.datasource.driver-class-name=org.sqlite.JDBC",
+                "spring.jpa.database-platform=org.hibernate.community.dialect.SQLiteDialect",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.mvc.log-request-details=false",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.web=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.com.admincore.microservice=WARN"
+        })
+@ActiveProfiles({"test", "virtual-threads"})
+class VirtualThreadPurchaseLoadTest {
+
+    static final int PLATFORM_THREADS = 8;
+    private static final int CLIENTS = 48;
+    private static final int PURCHASES = 480;
+    private static final int INITIAL_STOCK = 1_000;
+    private static final long PRODUCT_SERVICE_DELAY_MS = 100;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    private static MockWebServer productService;
+    private static Path dataDir;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    static void startProductService() throws IOException {
+        dataDir = Files.createTempDirectory("virtual-threads");
+        productService = new MockWebServer();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(PRODUCT_SERVICE_DELAY_MS);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"data\": {\"id\": \"1\", \"attributes\": {\"name\": \"Load Product\"}}}");
+            }
+        });
+        productService.start();
+    }
+
+    @AfterAll
+    static void stopProductService() throws IOException {
+        productService.shutdown();
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @DynamicPropertySource
+    static void productServiceProperties(DynamicPropertyRegistry registry) {
+        registry.add("product.service.url", () -> productService.url("/products").toString());
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("inventory.db"));
+    }
+
+    @Test
+    void purchasesAreNotCappedByPlatformThreadCount() throws Exception {
+        assertTrue(dataSource instanceof PinningGuardDataSource, "Expected the SQLite data source behind the pinning guard");
+        inventoryRepository.deleteAll();
+        for (long productId = 1; productId <= CLIENTS; productId++) {
+            inventoryRepository.save(new Inventory(null, productId, INITIAL_STOCK));
+        }
+
+        HttpClient http = HttpClient.newHttpClient();
+        URI purchases = URI.create("http://localhost:" + port + "/inventory/purchases");
+
+        LoadReport report = new LoadReport("virtual threads", PURCHASES, CLIENTS, "sold", "SQLITE_BUSY", "other errors");
+        AtomicInteger remaining = new AtomicInteger(PURCHASES);
+        report.start();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                // One product per client: lookups of the same product are coalesced into one call.
+                HttpRequest purchase = HttpRequest.newBuilder(purchases)
+                        .header("x-api-key", "TEST_INVENTORY_KEY")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"productId\": " + (i + 1) + ", \"quantity\": 1}"))
+                        .build();
+                workers.add(clients.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = http.send(purchase, HttpResponse.BodyHandlers.ofString());
+                        long latency = System.nanoTime() - sent;
+                        if (response.statusCode() == 201) {
+                            report.record(latency, "sold");
+                        } else if (response.body().contains("SQLITE_BUSY") || response.body().contains("database is locked")) {
+                            report.record(latency, "SQLITE_BUSY");
+                        } else {
+                            report.record(latency, "other errors");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        report.stop();
+        report.print();
+        System.out.printf("  platform-thread ceiling %.1f req/s, peak concurrent product lookups %d%n",
+                PLATFORM_THREADS * 1000.0 / PRODUCT_SERVICE_DELAY_MS, peakInFlight.get());
+
+        assertEquals(PURCHASES, report.count("sold"));
+        int sold = 0;
+        for (long productId = 1; productId <= CLIENTS; productId++) {
+            sold += INITIAL_STOCK - inventoryRepository.findByProductId(productId).orElseThrow().getQuantity();
+        }
+        assertEquals(PURCHASES, sold);
+        assertTrue(peakInFlight.get() > PLATFORM_THREADS,
+                "Expected more than " + PLATFORM_THREADS + " requests blocked on the product service at once, saw " + peakInFlight.get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.admincore.microservice.inventory.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private ConcurrencyLimiter limiter(int min, int max) {
+        return new ConcurrencyLimiter(min, max, Duration.ofMillis(500), Duration.ofSeconds(1), 10, clock::get);
+    }
+
+    @Test
+    void tryAcquire_shouldRejectOverLimitAndAdmitAfterRelease() {
+        ConcurrencyLimiter limiter = limiter(1, 2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_shouldLowerLimitWhenP99ExceedsThreshold() {
+        ConcurrencyLimiter limiter = limiter(4, 40);
+
+        completeWindow(limiter, 20, SLOW);
+
+        assertEquals(30, limiter.limit());
+    }
+
+    @Test
+    void release_shouldNotGoBelowMinimum() {
+        ConcurrencyLimiter limiter = limiter(4, 40);
+
+        for (int i = 0; i < 20; i++) {
+            completeWindow(limiter, 20, SLOW);
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+
+    @Test
+    void release_shouldRaiseLimitBackWhenLatencyRecovers() {
+        ConcurrencyLimiter limiter = limiter(4, 40);
+        completeWindow(limiter, 20, SLOW);
+
+        completeWindow(limiter, 20, FAST);
+
+        assertEquals(33, limiter.limit());
+    }
+
+    @Test
+    void release_shouldIgnoreSlowRequestsUnderOnePercent() {
+        ConcurrencyLimiter limiter = limiter(4, 40);
+
+        for (int i = 0; i < 199; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST);
+        }
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW);
+
+        assertEquals(40, limiter.limit());
+    }
+
+    private void completeWindow(ConcurrencyLimiter limiter, int requests, long latency) {
+        for (int i = 0; i < requests - 1; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(latency);
+        }
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(latency);
+    }
+}
@@ -1,24 +1,41 @@
 package com.admincore.microservice.inventory.service;
 
+import com.admincore.microservice.inventory.cache.StockCache;
+import com.admincore.microservice.inventory.client.ProductInfo;
 import com.admincore.microservice.inventory.client.ProductServiceClient;
 import com.admincore.microservice.inventory.dto.InventoryRequest;
 import com.admincore.microservice.inventory.dto.PurchaseRequest;
 import com.admincore.microservice.inventory.exception.InsufficientInventoryException;
 import com.admincore.microservice.inventory.exception.InventoryNotFoundException;
+import com.admincore.microservice.inventory.metrics.InventoryMetrics;
 import com.admincore.microservice.inventory.model.Inventory;
+import com.admincore.microservice.inventory.model.MovementType;
+import com.admincore.microservice.inventory.model.StockMovement;
 import com.admincore.microservice.inventory.repository.InventoryRepository;
 import com.admincore.microservice.inventory.service.impl.InventoryServiceImpl;
+import com.admincore.microservice.inventory.write.InventoryWriteQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +47,23 @@ class InventoryServiceImplTest {
     @Mock
     private ProductServiceClient productServiceClient;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<InventoryWriteQueue> writeQueue;
+
+    @Mock
+    private StockLedgerService stockLedger;
+
+    @Spy
+    private StockCache stockCache = new StockCache(true, 100, Duration.ofMinutes(5));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private InventoryMetrics metrics = new InventoryMetrics(meterRegistry);
+
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
@@ -38,6 +72,9 @@ class InventoryServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         inventory = new Inventory();
         inventory.setId(1L);
         inventory.setProductId(100L);
@@ -49,11 +86,10 @@ class InventoryServiceImplTest {
     }
 
     @Test
-    void createOrUpdateInventory_ShouldCreateNewInventory_WhenInventoryDoesNotExist() {
+    void createOrUpdateInventory_ShouldUpsertInventory() {
         // Arrange
-        when(productServiceClient.isProductAvailable(100L)).thenReturn(true);
-        when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.empty());
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.upsertQuantity(100L, 10)).thenReturn(inventory);
 
         // Act
         var result = inventoryService.createOrUpdateInventory(inventoryRequest);
@@ -62,35 +98,33 @@ class InventoryServiceImplTest {
         assertNotNull(result);
         assertEquals(100L, result.getProductId());
         assertEquals(10, result.getQuantity());
-        verify(inventoryRepository, times(1)).save(any(Inventory.class));
+        verify(inventoryRepository, times(1)).upsertQuantity(100L, 10);
+        verify(inventoryRepository, never()).findByProductId(anyLong());
+        verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
     @Test
-    void createOrUpdateInventory_ShouldUpdateExistingInventory_WhenInventoryExists() {
+    void createOrUpdateInventory_ShouldRecordMovementBeforeWritingQuantity() {
         // Arrange
-        Inventory existingInventory = new Inventory();
-        existingInventory.setId(1L);
-        existingInventory.setProductId(100L);
-        existingInventory.setQuantity(5);
-
-        when(productServiceClient.isProductAvailable(100L)).thenReturn(true);
-        when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.of(existingInventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(existingInventory);
+        Inventory updated = new Inventory(1L, 100L, 10, 2);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.upsertQuantity(100L, 10)).thenReturn(updated);
 
         // Act
         var result = inventoryService.createOrUpdateInventory(inventoryRequest);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(100L, result.getProductId());
-        assertEquals(10, result.getQuantity()); // Updated quantity
-        verify(inventoryRepository, times(1)).save(existingInventory);
+        assertEquals(2, result.getReserved());
+        assertEquals(8, result.getAvailable());
+        var inOrder = inOrder(stockLedger, inventoryRepository);
+        inOrder.verify(stockLedger).recordQuantitySet(100L, 10);
+        inOrder.verify(inventoryRepository).upsertQuantity(100L, 10);
     }
 
     @Test
     void createOrUpdateInventory_ShouldThrowException_WhenProductDoesNotExist() {
         // Arrange
-        when(productServiceClient.isProductAvailable(100L)).thenReturn(false);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(ProductInfo.notFound(100L));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -98,7 +132,7 @@ class InventoryServiceImplTest {
         });
 
         assertEquals("Product with ID 100 does not exist in the product service", exception.getMessage());
-        verify(inventoryRepository, never()).save(any(Inventory.class));
+        verify(inventoryRepository, never()).upsertQuantity(anyLong(), anyInt());
     }
 
     @Test
@@ -126,6 +160,98 @@ class InventoryServiceImplTest {
         });
 
         assertEquals("Inventory not found for product ID: 100", exception.getMessage());
+        assertEquals(1, meterRegistry.get("inventory.not.found").tag("operation", "lookup").counter().count());
+        assertEquals(1, meterRegistry.get("inventory.requests")
+                .tags("operation", "lookup", "outcome", "not_found").timer().count());
+    }
+
+    @Test
+    void getInventoryPage_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        // Arrange
+        when(inventoryRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(List.of(
+                new Inventory(1L, 100L, 10),
+                new Inventory(2L, 200L, 20),
+                new Inventory(3L, 300L, 30)));
+
+        // Act
+        var page = inventoryService.getInventoryPage(null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getNextCursor());
+    }
+
+    @Test
+    void getInventoryPage_ShouldReturnNoCursor_OnLastPage() {
+        // Arrange
+        when(inventoryRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(
+                new Inventory(3L, 300L, 30)));
+
+        // Act
+        var page = inventoryService.getInventoryPage(2L, 2);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getInventoryByProductId_ShouldServeRepeatReadsFromStockCache() {
+        // Arrange
+        when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.of(inventory));
+        inventoryService.getInventoryByProductId(100L);
+
+        // Act
+        var result = inventoryService.getInventoryByProductId(100L);
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals(10, result.getQuantity());
+        verify(inventoryRepository, times(1)).findByProductId(100L);
+    }
+
+    @Test
+    void createOrUpdateInventory_ShouldWriteThroughToStockCache() {
+        // Arrange
+        inventory.setQuantity(25);
+        inventoryRequest.setQuantity(25);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.upsertQuantity(100L, 25)).thenReturn(inventory);
+
+        // Act
+        inventoryService.createOrUpdateInventory(inventoryRequest);
+
+        // Assert
+        assertEquals(25, stockCache.get(100L).quantity());
+    }
+
+    @Test
+    void purchase_ShouldDecrementCachedStock() {
+        // Arrange
+        when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.of(inventory));
+        inventoryService.getInventoryByProductId(100L);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.decrementQuantity(100L, 3)).thenReturn(1);
+
+        // Act
+        inventoryService.purchase(new PurchaseRequest(100L, 3));
+
+        // Assert
+        assertEquals(7, inventoryService.getInventoryByProductId(100L).getQuantity());
+        verify(inventoryRepository, times(1)).findByProductId(100L);
+    }
+
+    @Test
+    void purchase_ShouldInvalidateCachedStock_WhenRejected() {
+        // Arrange
+        when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.of(inventory));
+        inventoryService.getInventoryByProductId(100L);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.decrementQuantity(100L, 15)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.purchase(new PurchaseRequest(100L, 15)));
+        assertNull(stockCache.get(100L));
     }
 
     @Test
@@ -135,10 +261,8 @@ class InventoryServiceImplTest {
         purchaseRequest.setProductId(100L);
         purchaseRequest.setQuantity(3);
 
-        when(productServiceClient.isProductAvailable(100L)).thenReturn(true);
-        when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.of(inventory));
-        when(productServiceClient.getProductName(100L)).thenReturn("Test Product");
-        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.decrementQuantity(100L, 3)).thenReturn(1);
 
         // Act
         var result = inventoryService.purchase(purchaseRequest);
@@ -148,8 +272,10 @@ class InventoryServiceImplTest {
         assertEquals(100L, result.getProductId());
         assertEquals("Test Product", result.getProductName());
         assertEquals(3, result.getPurchasedQuantity());
-        assertEquals(7, inventory.getQuantity()); // 10 - 3 = 7
-        verify(inventoryRepository, times(1)).save(inventory);
+        verify(productServiceClient, times(1)).getProductInfo(100L);
+        verify(inventoryRepository, times(1)).decrementQuantity(100L, 3);
+        verify(inventoryRepository, never()).findByProductId(anyLong());
+        verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
     @Test
@@ -159,7 +285,7 @@ class InventoryServiceImplTest {
         purchaseRequest.setProductId(100L);
         purchaseRequest.setQuantity(3);
 
-        when(productServiceClient.isProductAvailable(100L)).thenReturn(false);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(ProductInfo.notFound(100L));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -167,7 +293,7 @@ class InventoryServiceImplTest {
         });
 
         assertEquals("Product with ID 100 does not exist", exception.getMessage());
-        verify(inventoryRepository, never()).save(any(Inventory.class));
+        verify(inventoryRepository, never()).decrementQuantity(anyLong(), anyInt());
     }
 
     @Test
@@ -177,7 +303,8 @@ class InventoryServiceImplTest {
         purchaseRequest.setProductId(100L);
         purchaseRequest.setQuantity(3);
 
-        when(productServiceClient.isProductAvailable(100L)).thenReturn(true);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.decrementQuantity(100L, 3)).thenReturn(0);
         when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -196,7 +323,8 @@ class InventoryServiceImplTest {
         purchaseRequest.setProductId(100L);
         purchaseRequest.setQuantity(15); // More than available (10)
 
-        when(productServiceClient.isProductAvailable(100L)).thenReturn(true);
+        when(productServiceClient.getProductInfo(100L)).thenReturn(product(100L, "Test Product"));
+        when(inventoryRepository.decrementQuantity(100L, 15)).thenReturn(0);
         when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.of(inventory));
 
         // Act & Assert
@@ -204,7 +332,86 @@ class InventoryServiceImplTest {
             inventoryService.purchase(purchaseRequest);
         });
 
-        assertTrue(exception.getMessage().contains("Insufficient inventory"));
+        assertEquals("Insufficient inventory for product ID: 100. Available: 10, Requested: 15", exception.getMessage());
         verify(inventoryRepository, never()).save(any(Inventory.class));
+        assertEquals(1, meterRegistry.get("inventory.insufficient.stock").tag("operation", "purchase").counter().count());
+        assertEquals(1, meterRegistry.get("inventory.request.phase")
+                .tags("operation", "purchase", "phase", "product_service").timer().count());
+        assertEquals(1, meterRegistry.get("inventory.request.phase")
+                .tags("operation", "purchase", "phase", "database").timer().count());
+    }
+
+    @Test
+    void purchaseBatch_ShouldValidateEachProductOnceAndApplyAllLines() {
+        // Arrange
+        List<PurchaseRequest> lines = List.of(
+                new PurchaseRequest(100L, 2),
+                new PurchaseRequest(200L, 1),
+                new PurchaseRequest(100L, 3));
+
+        when(productServiceClient.getProductInfos(List.of(100L, 200L, 100L))).thenReturn(Map.of(
+                100L, product(100L, "Keyboard"),
+                200L, product(200L, "Mouse")));
+        when(inventoryRepository.decrementQuantities(lines)).thenReturn(new int[]{1, 1, 1});
+
+        // Act
+        var result = inventoryService.purchaseBatch(lines);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals("Keyboard", result.get(0).getProductName());
+        assertEquals("Mouse", result.get(1).getProductName());
+        assertEquals(3, result.get(2).getPurchasedQuantity());
+        verify(productServiceClient, times(1)).getProductInfos(any());
+        verify(productServiceClient, never()).getProductInfo(anyLong());
+        verify(inventoryRepository, times(1)).decrementQuantities(lines);
+        verify(stockLedger, times(1)).record(argThat(movements -> movements.size() == 3
+                && movements.stream().allMatch(movement -> movement.getType() == MovementType.PURCHASE)
+                && movements.stream().mapToInt(StockMovement::getDelta).sum() == -6));
+    }
+
+    @Test
+    void purchaseBatch_ShouldThrowException_WhenAnyLineHasInsufficientInventory() {
+        // Arrange
+        List<PurchaseRequest> lines = List.of(
+                new PurchaseRequest(200L, 1),
+                new PurchaseRequest(100L, 15));
+
+        when(productServiceClient.getProductInfos(any())).thenReturn(Map.of(
+                100L, product(100L, "Test Product"),
+                200L, product(200L, "Test Product")));
+        when(inventoryRepository.decrementQuantities(lines)).thenReturn(new int[]{1, 0});
+        when(inventoryRepository.findByProductId(100L)).thenReturn(Optional.of(inventory));
+
+        // Act & Assert
+        InsufficientInventoryException exception = assertThrows(InsufficientInventoryException.class, () -> {
+            inventoryService.purchaseBatch(lines);
+        });
+
+        assertEquals("Insufficient inventory for product ID: 100. Available: 10, Requested: 15", exception.getMessage());
+    }
+
+    @Test
+    void purchaseBatch_ShouldNotTouchInventory_WhenAnyProductDoesNotExist() {
+        // Arrange
+        List<PurchaseRequest> lines = List.of(
+                new PurchaseRequest(100L, 1),
+                new PurchaseRequest(300L, 1));
+
+        when(productServiceClient.getProductInfos(any())).thenReturn(Map.of(
+                100L, product(100L, "Test Product"),
+                300L, ProductInfo.notFound(300L)));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            inventoryService.purchaseBatch(lines);
+        });
+
+        assertEquals("Product with ID 300 does not exist", exception.getMessage());
+        verify(inventoryRepository, never()).decrementQuantities(any());
+    }
+
+    private static ProductInfo product(Long id, String name) {
+        return new ProductInfo(id, true, name, null, null);
     }
-}
\ No newline at end of file
+}
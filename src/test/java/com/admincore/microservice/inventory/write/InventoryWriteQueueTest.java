@@ -0,0 +1,170 @@
+package com.admincore.microservice.inventory.write;
+
+import com.admincore.microservice.inventory.exception.InsufficientInventoryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class InventoryWriteQueueTest {
+
+    private final AtomicInteger transactions = new AtomicInteger();
+    private TransactionStatus status;
+    private JdbcSavepoints savepoints;
+    private TransactionTemplate transactionTemplate;
+    private InventoryWriteQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        status = mock(TransactionStatus.class);
+        savepoints = mock(JdbcSavepoints.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            transactions.incrementAndGet();
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(status);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        queue = new InventoryWriteQueue(transactionTemplate, savepoints, 100, 16,
+                Duration.ofSeconds(1), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    void queuedMutationsShareOneTransaction() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.start();
+        CompletableFuture<Integer> first = queue.submit(() -> {
+            writerBusy.countDown();
+            await(release);
+            return 0;
+        });
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            int value = i;
+            queued.add(queue.submit(() -> value));
+        }
+        release.countDown();
+
+        assertEquals(0, first.get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < queued.size(); i++) {
+            assertEquals(i + 1, queued.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, transactions.get());
+    }
+
+    @Test
+    void rejectedMutationIsRolledBackToItsSavepointOnly() throws Exception {
+        Savepoint savepoint = mock(Savepoint.class);
+        when(savepoints.create()).thenReturn(savepoint);
+        queue.start();
+
+        CompletableFuture<Integer> rejected = queue.submit(() -> {
+            throw new InsufficientInventoryException("no stock");
+        });
+        CompletableFuture<Integer> accepted = queue.submit(() -> 1);
+
+        CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(InsufficientInventoryException.class, failure.getCause());
+        assertEquals(1, accepted.get(5, TimeUnit.SECONDS));
+        verify(savepoints, atLeastOnce()).rollbackTo(savepoint);
+    }
+
+    @Test
+    void errorFailsItsBatchAndKeepsTheWriterRunning() throws Exception {
+        queue.start();
+
+        CompletableFuture<Integer> broken = queue.submit(() -> {
+            throw new AssertionError("boom");
+        });
+
+        CompletionException failure = assertThrows(CompletionException.class, broken::join);
+        assertInstanceOf(AssertionError.class, failure.getCause());
+        assertEquals(1, queue.submit(() -> 1).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waitingForCommitTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        queue.close();
+        queue = new InventoryWriteQueue(transactionTemplate, savepoints, 100, 16,
+                Duration.ofSeconds(1), Duration.ofMillis(50));
+        queue.start();
+
+        CompletableFuture<Integer> slow = queue.submit(() -> {
+            await(release);
+            return 1;
+        });
+
+        CompletionException failure = assertThrows(CompletionException.class, slow::join);
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        release.countDown();
+    }
+
+    @Test
+    void failedGroupCommitRetriesEachMutationAlone() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            int call = calls.incrementAndGet();
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(status);
+            if (call == 2) {
+                throw new IllegalStateException("commit failed");
+            }
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        queue.start();
+
+        queue.submit(() -> {
+            writerBusy.countDown();
+            await(release);
+            return 0;
+        });
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> a = queue.submit(() -> 1);
+        CompletableFuture<Integer> b = queue.submit(() -> 2);
+        release.countDown();
+
+        assertEquals(1, a.get(5, TimeUnit.SECONDS));
+        assertEquals(2, b.get(5, TimeUnit.SECONDS));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void submitFailsFastWhenNotRunning() {
+        CompletionException failure = assertThrows(CompletionException.class, () -> queue.submit(() -> 1).join());
+        assertEquals("Inventory write queue is not running", failure.getCause().getMessage());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}